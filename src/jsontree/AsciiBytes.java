@@ -0,0 +1,79 @@
+package jsontree;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Presents the bytes of a buffer as characters, for slices that are known to be ASCII.
+ * Indexes are absolute buffer indexes, the buffer position is never used.
+ */
+final class AsciiBytes implements CharSequence {
+  private final ByteBuffer source;
+  private final ByteBuffer buffer;
+
+  /**
+   * Creates a view of the bytes of a buffer.
+   * Later changes of the buffer position or limit do not affect the view.
+   *
+   * @param buffer the bytes, read up to its limit
+   */
+  AsciiBytes(ByteBuffer buffer) {
+    this.source = buffer;
+    this.buffer = buffer.duplicate();
+  }
+
+  /**
+   * Checks whether this is a view of the given buffer.
+   *
+   * @param other a buffer
+   * @return true if the view reads that buffer
+   */
+  boolean isViewOf(ByteBuffer other) {
+    return source == other;
+  }
+
+  /**
+   * Returns the number of bytes up to the buffer limit.
+   *
+   * @return the length
+   */
+  @Override
+  public int length() {
+    return buffer.limit();
+  }
+
+  /**
+   * Returns a byte as a character.
+   *
+   * @param index absolute index in the buffer
+   * @return the character
+   */
+  @Override
+  public char charAt(int index) {
+    return (char) buffer.get(index);
+  }
+
+  /**
+   * Decodes a range of bytes into a String.
+   *
+   * @param start absolute index of the first byte
+   * @param end   absolute index after the last byte
+   * @return the characters between start and end
+   */
+  @Override
+  public CharSequence subSequence(int start, int end) {
+    byte[] bytes = new byte[end - start];
+    buffer.duplicate().position(start).get(bytes);
+    return new String(bytes, StandardCharsets.US_ASCII);
+  }
+
+  /**
+   * Decodes all bytes up to the buffer limit.
+   *
+   * @return the characters of the buffer
+   */
+  @Override
+  public String toString() {
+    return subSequence(0, length()).toString();
+  }
+}
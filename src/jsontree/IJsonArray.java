@@ -1,11 +1,14 @@
 package jsontree;
 
+import java.util.Iterator;
+
 /**
  * An abstract representation of a JSON array in a tree structure.
  * IJsonArray class extends  JsonNode.
  * IJsonArray provides add functionality for adding JsonNodes in an array.
+ * The elements can be read by position or iterated in order.
  */
-public abstract class IJsonArray extends JsonNode {
+public abstract class IJsonArray extends JsonNode implements Iterable<JsonNode> {
 
   /**
    * Adds a  JsonNode to the JSON array.
@@ -13,4 +16,28 @@ public abstract class IJsonArray extends JsonNode {
    * @param value The JSON node to be added.
    */
   public abstract void add(JsonNode value);
+
+  /**
+   * Returns the number of elements.
+   *
+   * @return the size of the array
+   */
+  public abstract int size();
+
+  /**
+   * Returns the element at a position.
+   *
+   * @param index the position of the element
+   * @return the element
+   * @throws IndexOutOfBoundsException if the index is negative or not less than size()
+   */
+  public abstract JsonNode get(int index);
+
+  /**
+   * Returns the elements in order. The iterator does not support remove.
+   *
+   * @return an iterator over the elements
+   */
+  @Override
+  public abstract Iterator<JsonNode> iterator();
 }
@@ -1,5 +1,7 @@
 package jsontree;
 
+import java.util.Map;
+
 /**
  * An abstract representation of a JSON object in a tree structure.
  * This class extends {@code JsonNode} and provides functionality for managing key-value pairs.
@@ -13,4 +15,30 @@ public abstract class IJsonObject extends JsonNode {
    * @param value JSON node to be associated with the key of type JsonNode.
    */
   public abstract void add(String key, JsonNode value);
-}
\ No newline at end of file
+
+  /**
+   * Returns the value of a key. If the key was added more than once, the last value wins.
+   *
+   * @param key the key to look up
+   * @return the value, or null if the object has no such key
+   */
+  public abstract JsonNode get(String key);
+
+  /**
+   * Checks whether the object has a key.
+   *
+   * @param key the key to look up
+   * @return true if the key was added, else false
+   */
+  public boolean containsKey(String key) {
+    return get(key) != null;
+  }
+
+  /**
+   * Returns a read-only Map view of the object, holding the last value of every key.
+   * Keys are iterated in the order in which their last value was added.
+   *
+   * @return the map view
+   */
+  public abstract Map<String, JsonNode> asMap();
+}
@@ -1,6 +1,9 @@
 package jsontree;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 
 /**
@@ -10,6 +13,8 @@ import java.util.List;
  * JsonArray overrides default implementation equal , hashcode.
  */
 public class JsonArray extends IJsonArray {
+  static final long FINGERPRINT_SEED = 0x5a3c_9b1e_77d4_0f21L;
+
   private List<JsonNode> arrayElements;
 
   /**
@@ -22,24 +27,30 @@ public class JsonArray extends IJsonArray {
   /**
    * Implementation of prettyPrint() from the JsonNode Interface.
    * Generates a pretty-printed string representation of the JSON array.
-   * Uses setLevel function to set the children level depth.
+   * The elements are written with their depth passed down, none of them is modified.
    *
    * @return A formatted string representation of the JSON array.
    */
   public String prettyPrint() {
-    StringBuilder result = new StringBuilder("");
-    String indentation = getSpace(this.level);
-    result.append(indentation).append("[");
+    return toString(JsonStyle.PRETTY);
+  }
 
+  /**
+   * Writes the array and its elements, each element one level deeper in the PRETTY style.
+   *
+   * @param out   the destination
+   * @param style the layout to write
+   * @param depth the indentation level
+   * @throws IOException if the destination fails
+   */
+  @Override
+  protected void write(Appendable out, JsonStyle style, int depth) throws IOException {
+    writeStart(out, '[', style, depth);
     for (int i = 0; i < arrayElements.size(); i++) {
-      arrayElements.get(i).setLevel(this.level + 1);
-      result.append("\n" + arrayElements.get(i).prettyPrint());
-      if (i < arrayElements.size() - 1) {
-        result.append(",");
-      }
+      writeSeparator(out, i, style);
+      arrayElements.get(i).write(out, style, depth + 1);
     }
-    result.append("\n").append(indentation).append("]");
-    return result.toString();
+    writeEnd(out, ']', style, depth);
   }
 
   /**
@@ -51,6 +62,48 @@ public class JsonArray extends IJsonArray {
   @Override
   public void add(JsonNode value) {
     arrayElements.add(value);
+    value.addedTo(this);
+  }
+
+  /**
+   * Returns the number of elements.
+   *
+   * @return the size of the array
+   */
+  @Override
+  public int size() {
+    return arrayElements.size();
+  }
+
+  /**
+   * Returns the element at a position.
+   *
+   * @param index the position of the element
+   * @return the element
+   * @throws IndexOutOfBoundsException if the index is negative or not less than size()
+   */
+  @Override
+  public JsonNode get(int index) {
+    return arrayElements.get(index);
+  }
+
+  /**
+   * Returns the elements in insertion order. The iterator does not support remove.
+   *
+   * @return an iterator over the elements
+   */
+  @Override
+  public Iterator<JsonNode> iterator() {
+    return Collections.unmodifiableList(arrayElements).iterator();
+  }
+
+  /**
+   * Returns the elements in insertion order.
+   *
+   * @return the live list of elements
+   */
+  List<JsonNode> elements() {
+    return arrayElements;
   }
 
   /**
@@ -65,11 +118,15 @@ public class JsonArray extends IJsonArray {
     if (this == otherObject) {
       return true;
     }
-    if (!(otherObject instanceof IJsonArray)) {
+    if (otherObject instanceof TapeArray) {
+      return otherObject.equals(this);
+    }
+    if (!(otherObject instanceof JsonArray)) {
       return false;
     }
     JsonArray thatObject = (JsonArray) otherObject;
-    if (arrayElements.size() != thatObject.arrayElements.size()) {
+    if (arrayElements.size() != thatObject.arrayElements.size()
+            || fingerprint() != thatObject.fingerprint()) {
       return false;
     }
     for (int i = 0; i < arrayElements.size(); i++) {
@@ -83,17 +140,38 @@ public class JsonArray extends IJsonArray {
 
   /**
    * Computes the hash code for this JsonArray.
-   * The function sums the has of all the individual nodes to compute the has for JsonArray.
+   * The hash code is folded from the cached fingerprint, so it depends on the element order.
    *
    * @return The hash code value.
    */
   @Override
   public int hashCode() {
-    int hashValue = 1;
+    return hashOf(fingerprint());
+  }
+
+  /**
+   * Computes the fingerprint by chaining the element fingerprints in order.
+   *
+   * @return the fingerprint
+   */
+  @Override
+  protected long computeFingerprint() {
+    long fingerprint = FINGERPRINT_SEED;
     for (JsonNode element : arrayElements) {
-      hashValue = hashValue + (element.hashCode());
+      fingerprint = nextFingerprint(fingerprint, element.fingerprint());
     }
-    return hashValue;
+    return fingerprint;
+  }
+
+  /**
+   * Adds the fingerprint of the next element to the fingerprint of the elements before it.
+   *
+   * @param fingerprint the fingerprint of the elements so far
+   * @param element     the fingerprint of the next element
+   * @return the fingerprint including the element
+   */
+  static long nextFingerprint(long fingerprint, long element) {
+    return mix(fingerprint + element);
   }
 
 }
@@ -1,14 +1,30 @@
 package jsontree;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
 /**
  * An abstract representation of a JSON node in a tree structure.
  * This class provides common functionality for formatting and printing JSON data.
  * By default, the class sets the level of the node to 0.
- * Classes which extends JsonNode uses setLevel method to set their nested levels.
+ * The level only sets the indentation of a node printed on its own. Children are printed
+ * with their depth passed down, so printing never modifies a node and trees can be printed
+ * by several threads at once.
+ * Every node caches a 64-bit fingerprint of its subtree. A node knows the container it was
+ * added to, so adding to a container clears the cached fingerprints up to the root. A node
+ * added to several containers forgets them all, and the containers above it stop caching.
  */
 public abstract class JsonNode {
   private static final int DEFAULT_LEVEL = 0;
+  private static final long MIX_MULTIPLIER_1 = 0xff51afd7ed558ccdL;
+  private static final long MIX_MULTIPLIER_2 = 0xc4ceb9fe1a85ec53L;
+  private static final String SPACES = "                                                        "
+          + "        ";
   protected int level;
+  private volatile long fingerprint;
+  private JsonNode parent;
+  private boolean shared;
+  private boolean uncached;
 
   /**
    * Constructs a Json Node with the default indentation level.
@@ -24,6 +40,110 @@ public abstract class JsonNode {
    */
   public abstract String prettyPrint();
 
+  /**
+   * Writes the node to a destination in one pass, without building intermediate Strings.
+   * In the PRETTY style the output is the same as prettyPrint.
+   *
+   * @param out   the destination, for example a Writer or a StringBuilder
+   * @param style the layout to write
+   * @throws IOException if the destination fails
+   */
+  public void writeTo(Appendable out, JsonStyle style) throws IOException {
+    write(out, style, level);
+  }
+
+  /**
+   * Writes the node to a String.
+   *
+   * @param style the layout to write
+   * @return the written text
+   */
+  public String toString(JsonStyle style) {
+    StringBuilder result = new StringBuilder();
+    try {
+      writeTo(result, style);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return result.toString();
+  }
+
+  /**
+   * Writes the node at an indentation depth.
+   *
+   * @param out   the destination
+   * @param style the layout to write
+   * @param depth the indentation level of the node, ignored by the COMPACT style
+   * @throws IOException if the destination fails
+   */
+  protected abstract void write(Appendable out, JsonStyle style, int depth) throws IOException;
+
+  /**
+   * Writes the opening brace or bracket of an object or array.
+   *
+   * @param out     the destination
+   * @param bracket the opening character
+   * @param style   the layout to write
+   * @param depth   the indentation level of the object or array
+   * @throws IOException if the destination fails
+   */
+  static void writeStart(Appendable out, char bracket, JsonStyle style, int depth)
+          throws IOException {
+    if (style == JsonStyle.PRETTY) {
+      indent(out, depth);
+    }
+    out.append(bracket);
+  }
+
+  /**
+   * Writes what precedes a child of an object or array: a comma after the previous child,
+   * and in the PRETTY style a line break.
+   *
+   * @param out      the destination
+   * @param position the position of the child
+   * @param style    the layout to write
+   * @throws IOException if the destination fails
+   */
+  static void writeSeparator(Appendable out, int position, JsonStyle style) throws IOException {
+    if (position > 0) {
+      out.append(',');
+    }
+    if (style == JsonStyle.PRETTY) {
+      out.append('\n');
+    }
+  }
+
+  /**
+   * Writes the closing brace or bracket of an object or array.
+   *
+   * @param out     the destination
+   * @param bracket the closing character
+   * @param style   the layout to write
+   * @param depth   the indentation level of the object or array
+   * @throws IOException if the destination fails
+   */
+  static void writeEnd(Appendable out, char bracket, JsonStyle style, int depth)
+          throws IOException {
+    if (style == JsonStyle.PRETTY) {
+      out.append('\n');
+      indent(out, depth);
+    }
+    out.append(bracket);
+  }
+
+  /**
+   * Writes two spaces per indentation level, from a shared constant.
+   *
+   * @param out   the destination
+   * @param depth the indentation level
+   * @throws IOException if the destination fails
+   */
+  static void indent(Appendable out, int depth) throws IOException {
+    for (int remaining = depth * 2; remaining > 0; remaining -= SPACES.length()) {
+      out.append(SPACES, 0, Math.min(remaining, SPACES.length()));
+    }
+  }
+
   /**
    * Sets the indentation level of the node.
    *
@@ -34,17 +154,110 @@ public abstract class JsonNode {
   }
 
   /**
-   * Generates a string containing spaces for indentation based on the given level.
+   * Returns the fingerprint of the subtree, computing it once and caching it until a node
+   * is added somewhere below. Equal subtrees have equal fingerprints. Arrays depend on the
+   * order of their elements, objects do not depend on the order of their entries.
+   * Nodes above a node with several containers compute it every time.
+   *
+   * @return the fingerprint, never 0
+   */
+  public final long fingerprint() {
+    long value = fingerprint;
+    if (value == 0) {
+      value = computeFingerprint();
+      if (value == 0) {
+        value = 1;
+      }
+      if (!uncached) {
+        fingerprint = value;
+      }
+    }
+    return value;
+  }
+
+  /**
+   * Computes the fingerprint of the subtree, from the fingerprints of the children.
+   *
+   * @return the fingerprint
+   */
+  protected abstract long computeFingerprint();
+
+  /**
+   * Records that this node was added to a container and clears the fingerprint of the
+   * container and its ancestors. Must be called by containers on every add.
+   * Only the first container is remembered. Once a node is added to a second one it keeps
+   * no container at all, so that dropped containers can be collected, and the containers
+   * above it stop caching because they could no longer be cleared.
+   *
+   * @param container the object or array the node was added to
+   */
+  protected void addedTo(JsonNode container) {
+    if (parent != null) {
+      parent.stopCaching();
+      parent = null;
+      shared = true;
+    } else if (!shared) {
+      parent = container;
+    }
+    if (shared || uncached) {
+      container.stopCaching();
+    } else {
+      container.clearFingerprint();
+    }
+  }
+
+  /**
+   * Returns the only container this node keeps a link to.
    *
-   * @param level The indentation level.
-   * @return A string containing spaces for indentation.
+   * @return the first container the node was added to, or null if it has none or was added
+   *         to more than one
+   */
+  JsonNode container() {
+    return parent;
+  }
+
+  /**
+   * Clears the cached fingerprint of this node and of all containers above it.
+   * A container whose fingerprint is not cached has no cached ancestor either, so the walk
+   * stops there.
    */
+  private void clearFingerprint() {
+    for (JsonNode node = this; node != null && node.fingerprint != 0; node = node.parent) {
+      node.fingerprint = 0;
+    }
+  }
 
-  protected String getSpace(int level) {
-    StringBuilder indentation = new StringBuilder();
-    for (int i = 0; i < level * 2; i++) {
-      indentation.append(" ");
+  /**
+   * Stops caching the fingerprint of this node and of all containers above it.
+   * The containers above a node that no longer caches have stopped already, so the walk
+   * stops there.
+   */
+  private void stopCaching() {
+    for (JsonNode node = this; node != null && !node.uncached; node = node.parent) {
+      node.uncached = true;
+      node.fingerprint = 0;
     }
-    return indentation.toString();
+  }
+
+  /**
+   * Folds a fingerprint into an int hash code.
+   *
+   * @param fingerprint the fingerprint
+   * @return the hash code
+   */
+  static int hashOf(long fingerprint) {
+    return (int) (fingerprint ^ (fingerprint >>> 32));
+  }
+
+  /**
+   * Scrambles the bits of a value, with the finalizer of MurmurHash3.
+   *
+   * @param value the value
+   * @return the scrambled value
+   */
+  static long mix(long value) {
+    value = (value ^ (value >>> 33)) * MIX_MULTIPLIER_1;
+    value = (value ^ (value >>> 33)) * MIX_MULTIPLIER_2;
+    return value ^ (value >>> 33);
   }
 }
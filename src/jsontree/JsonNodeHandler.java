@@ -0,0 +1,17 @@
+package jsontree;
+
+/**
+ * Receives the completed children that a JsonTreeBuilder emits instead of keeping them.
+ */
+@FunctionalInterface
+public interface JsonNodeHandler {
+
+  /**
+   * Called once a child at the emit depth has been read completely.
+   * The node is not added to its parent, so the builder keeps no reference to it.
+   *
+   * @param key  the key of the child in its object, or null for an array element
+   * @param node the complete child
+   */
+  void completed(String key, JsonNode node);
+}
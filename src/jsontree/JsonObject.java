@@ -1,19 +1,29 @@
 package jsontree;
 
+import java.io.IOException;
 import java.util.AbstractMap;
+import java.util.AbstractSet;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
 
 /**
  * A concrete implementation of a IJsonObject.
  * Extends IJsonObject & provides functionality to store and print key-value pairs.
  * Overrides default behaviour of equals and hash code method.
+ * Entries are kept in insertion order. Small objects are searched linearly. Larger ones get an
+ * open-addressing index of entry positions on their first lookup, which add keeps up to date.
  */
 public class JsonObject extends IJsonObject {
-  private List<Map.Entry<String, JsonNode>> objectElements;
+  private static final int INDEX_THRESHOLD = 8;
+  private static final long FINGERPRINT_SEED = 0x2f6b_e5c8_1d09_a473L;
+  private static final long KEY_MULTIPLIER = 0x9e3779b97f4a7c15L;
 
+  private List<Map.Entry<String, JsonNode>> objectElements;
+  private volatile int[] index;
 
   /**
    * Initialise an ArrayList to store json Objects.
@@ -24,35 +34,61 @@ public class JsonObject extends IJsonObject {
 
   /**
    * Generates a pretty-printed string representation of the JSON object.
-   * Uses setLevel to set the children indentation level.
+   * The children are written with their depth passed down, none of them is modified.
    *
    * @return A formatted string representation of the JSON object.
    */
   public String prettyPrint() {
-    StringBuilder result = new StringBuilder();
-    String indentation = getSpace(this.level);
-    String innerIndentation = getSpace(this.level + 1);
-    int entrySize = objectElements.size();
+    return toString(JsonStyle.PRETTY);
+  }
 
-    result.append(indentation).append("{\n");
-    for (int i = 0; i < entrySize; i++) {
+  /**
+   * Writes the object and its entries. In the PRETTY style, every entry is on its own line
+   * one level deeper, and a nested object or array starts on the line after its key.
+   *
+   * @param out   the destination
+   * @param style the layout to write
+   * @param depth the indentation level
+   * @throws IOException if the destination fails
+   */
+  @Override
+  protected void write(Appendable out, JsonStyle style, int depth) throws IOException {
+    writeStart(out, '{', style, depth);
+    for (int i = 0; i < objectElements.size(); i++) {
       Map.Entry<String, JsonNode> entry = objectElements.get(i);
-      result.append(innerIndentation + "\"").append(entry.getKey()).append("\":");
-
-      if (entry.getValue() instanceof IJsonObject || entry.getValue() instanceof IJsonArray) {
-        entry.getValue().setLevel(this.level + 1);
-        result.append("\n").append(entry.getValue().prettyPrint());
-      } else {
-        result.append(entry.getValue().prettyPrint());
-      }
+      JsonNode value = entry.getValue();
+      value.write(out, style, writeKey(out, i, entry.getKey(), value, style, depth));
+    }
+    writeEnd(out, '}', style, depth);
+  }
 
-      if (i < entrySize - 1) {
-        result.append(",");
+  /**
+   * Writes everything of an entry that precedes its value.
+   *
+   * @param out      the destination
+   * @param position the position of the entry
+   * @param key      the characters of the key
+   * @param value    the value, which decides where it starts
+   * @param style    the layout to write
+   * @param depth    the indentation level of the object
+   * @return the indentation level to write the value at
+   * @throws IOException if the destination fails
+   */
+  static int writeKey(Appendable out, int position, CharSequence key, JsonNode value,
+                      JsonStyle style, int depth) throws IOException {
+    writeSeparator(out, position, style);
+    boolean pretty = style == JsonStyle.PRETTY;
+    if (pretty) {
+      indent(out, depth + 1);
+    }
+    out.append('"').append(key).append("\":");
+    if (value instanceof IJsonObject || value instanceof IJsonArray) {
+      if (pretty) {
+        out.append('\n');
       }
-      result.append("\n");
+      return depth + 1;
     }
-    result.append(indentation).append("}");
-    return result.toString();
+    return 0;
   }
 
   /**
@@ -66,11 +102,64 @@ public class JsonObject extends IJsonObject {
   public void add(String key, JsonNode value) {
     if (isValidKey(key)) {
       objectElements.add(new AbstractMap.SimpleEntry<>(key, value));
+      value.addedTo(this);
+      int[] table = index;
+      if (table != null) {
+        if (objectElements.size() * 2 > table.length) {
+          buildIndex();
+        } else {
+          insert(table, objectElements.size() - 1);
+        }
+      }
     } else {
       throw new IllegalArgumentException();
     }
   }
 
+  /**
+   * Returns the value of a key in constant expected time.
+   * If the key was added more than once, the last value wins.
+   *
+   * @param key the key to look up
+   * @return the value, or null if the object has no such key
+   */
+  @Override
+  public JsonNode get(String key) {
+    int position = positionOf(key);
+    return position < 0 ? null : objectElements.get(position).getValue();
+  }
+
+  /**
+   * Checks whether the object has a key in constant expected time.
+   *
+   * @param key the key to look up
+   * @return true if the key was added, else false
+   */
+  @Override
+  public boolean containsKey(String key) {
+    return positionOf(key) >= 0;
+  }
+
+  /**
+   * Returns a read-only Map view backed by the entries, without copying them.
+   * Lookups use the index, size and iteration walk the entries.
+   *
+   * @return the map view
+   */
+  @Override
+  public Map<String, JsonNode> asMap() {
+    return new MapView();
+  }
+
+  /**
+   * Returns the key-value pairs in insertion order.
+   *
+   * @return the live list of entries
+   */
+  List<Map.Entry<String, JsonNode>> entries() {
+    return objectElements;
+  }
+
   /**
    * Checks if this JsonObject is equal to another object.
    * Two JsonObject are equal if they contain same key-value pairs, ignoring order
@@ -83,11 +172,15 @@ public class JsonObject extends IJsonObject {
     if (this == otherObject) {
       return true;
     }
+    if (otherObject instanceof TapeObject) {
+      return otherObject.equals(this);
+    }
     if (!(otherObject instanceof JsonObject)) {
       return false;
     }
     JsonObject thatObject = (JsonObject) otherObject;
-    if (objectElements.size() != thatObject.objectElements.size()) {
+    if (objectElements.size() != thatObject.objectElements.size()
+            || fingerprint() != thatObject.fingerprint()) {
       return false;
     }
     return areAllObjectsEqual(thatObject.objectElements);
@@ -95,19 +188,122 @@ public class JsonObject extends IJsonObject {
 
   /**
    * Used to Computes the hash code for a  JsonObject.
-   * Individual hash code for key and value for each object are summed to get the total hash.
+   * The hash code is folded from the cached fingerprint.
    *
    * @return The computed hash code.
    */
   @Override
   public int hashCode() {
-    int hashValue = 1;
-    for (Map.Entry<String, JsonNode> thisEntry : objectElements) {
-      int keyHash = thisEntry.getKey().hashCode();
-      int valueHash = thisEntry.getValue().hashCode();
-      hashValue = hashValue + (keyHash + valueHash);
+    return hashOf(fingerprint());
+  }
+
+  /**
+   * Computes the fingerprint by summing the fingerprints of the entries, so that the order
+   * of the entries does not matter.
+   *
+   * @return the fingerprint
+   */
+  @Override
+  protected long computeFingerprint() {
+    long sum = 0;
+    for (Map.Entry<String, JsonNode> entry : objectElements) {
+      sum += entryFingerprint(entry.getKey(), entry.getValue().fingerprint());
     }
-    return hashValue;
+    return objectFingerprint(sum, objectElements.size());
+  }
+
+  /**
+   * Computes the fingerprint of a key-value pair.
+   *
+   * @param key   the characters of the key
+   * @param value the fingerprint of the value
+   * @return the fingerprint of the pair
+   */
+  static long entryFingerprint(CharSequence key, long value) {
+    return mix(JsonString.textFingerprint(key) * KEY_MULTIPLIER + value);
+  }
+
+  /**
+   * Computes the fingerprint of an object from the sum of its entry fingerprints.
+   *
+   * @param entrySum the sum of the entry fingerprints
+   * @param size     the number of entries
+   * @return the fingerprint
+   */
+  static long objectFingerprint(long entrySum, int size) {
+    return mix(FINGERPRINT_SEED + entrySum + size);
+  }
+
+  /**
+   * Finds the position of the last entry with a key, building the index if the object has
+   * grown past the threshold.
+   *
+   * @param key the key to look up
+   * @return the position in the entry list, or -1 if there is none
+   */
+  private int positionOf(Object key) {
+    int[] table = index;
+    if (table == null) {
+      if (objectElements.size() <= INDEX_THRESHOLD) {
+        for (int i = objectElements.size() - 1; i >= 0; i--) {
+          if (objectElements.get(i).getKey().equals(key)) {
+            return i;
+          }
+        }
+        return -1;
+      }
+      table = buildIndex();
+    }
+    int mask = table.length - 1;
+    for (int slot = spread(key.hashCode()) & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+      int position = table[slot] - 1;
+      if (objectElements.get(position).getKey().equals(key)) {
+        return position;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Builds the index of all entries in a table at most half full.
+   *
+   * @return the new index
+   */
+  private int[] buildIndex() {
+    int size = Integer.highestOneBit(objectElements.size() * 2 - 1) << 1;
+    int[] table = new int[size];
+    for (int i = 0; i < objectElements.size(); i++) {
+      insert(table, i);
+    }
+    index = table;
+    return table;
+  }
+
+  /**
+   * Adds an entry position to the index, replacing an earlier entry with the same key.
+   * Slots hold the position plus one, so that zero marks an empty slot.
+   *
+   * @param table    the index
+   * @param position the position of the entry in the entry list
+   */
+  private void insert(int[] table, int position) {
+    String key = objectElements.get(position).getKey();
+    int mask = table.length - 1;
+    int slot = spread(key.hashCode()) & mask;
+    while (table[slot] != 0 && !objectElements.get(table[slot] - 1).getKey().equals(key)) {
+      slot = (slot + 1) & mask;
+    }
+    table[slot] = position + 1;
+  }
+
+  /**
+   * Mixes the high bits of a hash code into the low bits used to pick a slot.
+   *
+   * @param hash the hash code
+   * @return the spread hash code
+   */
+  static int spread(int hash) {
+    return hash ^ (hash >>> 16);
   }
 
   /**
@@ -136,30 +332,38 @@ public class JsonObject extends IJsonObject {
 
   /**
    * Checks whether two lists of key-value pairs contain same elements ignoring order.
+   * The other entries are chained in buckets by key hash, so every entry of this object is
+   * only compared with the entries of the same key, and each of those is matched at most once.
+   * This takes linear expected time, as long as a key is not repeated many times.
    *
    * @param thatEntries list of key-value pairs to compare against.
    * @return true if both lists contain the same elements, else false.
    */
   private boolean areAllObjectsEqual(List<Map.Entry<String, JsonNode>> thatEntries) {
     int thatSize = thatEntries.size();
+    int[] buckets = new int[Integer.highestOneBit(Math.max(1, thatSize * 2 - 1)) << 1];
+    int mask = buckets.length - 1;
+    int[] chain = new int[thatSize];
+    for (int i = thatSize - 1; i >= 0; i--) {
+      int bucket = spread(thatEntries.get(i).getKey().hashCode()) & mask;
+      chain[i] = buckets[bucket];
+      buckets[bucket] = i + 1;
+    }
     boolean[] visArray = new boolean[thatSize];
 
     for (Map.Entry<String, JsonNode> thisEntry : objectElements) {
       boolean found = false;
-      int index = 0;
-
-      Iterator<Map.Entry<String, JsonNode>> iterator = thatEntries.iterator();
-
-      while (iterator.hasNext()) {
-        Map.Entry<String, JsonNode> thatEntry = iterator.next();
-        if (thisEntry.getKey().equals(thatEntry.getKey())
-                && thisEntry.getValue().equals(thatEntry.getValue())
-                && !visArray[index]) {
+      int bucket = spread(thisEntry.getKey().hashCode()) & mask;
+      for (int next = buckets[bucket]; next != 0; next = chain[next - 1]) {
+        int index = next - 1;
+        Map.Entry<String, JsonNode> thatEntry = thatEntries.get(index);
+        if (!visArray[index]
+                && thisEntry.getKey().equals(thatEntry.getKey())
+                && thisEntry.getValue().equals(thatEntry.getValue())) {
           found = true;
           visArray[index] = true;
           break;
         }
-        index++;
       }
       if (!found) {
         return false;
@@ -167,4 +371,76 @@ public class JsonObject extends IJsonObject {
     }
     return true;
   }
+
+  /**
+   * A read-only Map over the entries holding the last value of every key.
+   */
+  private final class MapView extends AbstractMap<String, JsonNode> {
+
+    @Override
+    public JsonNode get(Object key) {
+      int position = key instanceof String ? positionOf(key) : -1;
+      return position < 0 ? null : objectElements.get(position).getValue();
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+      return key instanceof String && positionOf(key) >= 0;
+    }
+
+    @Override
+    public Set<Map.Entry<String, JsonNode>> entrySet() {
+      return new AbstractSet<Map.Entry<String, JsonNode>>() {
+        @Override
+        public Iterator<Map.Entry<String, JsonNode>> iterator() {
+          return new EntryIterator();
+        }
+
+        @Override
+        public int size() {
+          int size = 0;
+          for (Iterator<Map.Entry<String, JsonNode>> i = iterator(); i.hasNext(); i.next()) {
+            size++;
+          }
+          return size;
+        }
+      };
+    }
+  }
+
+  /**
+   * Iterates the entries holding the last value of their key, as read-only entries.
+   */
+  private final class EntryIterator implements Iterator<Map.Entry<String, JsonNode>> {
+    private int next = advance(0);
+
+    /**
+     * Finds the first entry at or after a position whose key is not added again later.
+     *
+     * @param position the position to start from
+     * @return the position of the entry, or the entry count if there is none
+     */
+    private int advance(int position) {
+      while (position < objectElements.size()
+              && positionOf(objectElements.get(position).getKey()) != position) {
+        position++;
+      }
+      return position;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return next < objectElements.size();
+    }
+
+    @Override
+    public Map.Entry<String, JsonNode> next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      Map.Entry<String, JsonNode> entry = objectElements.get(next);
+      next = advance(next + 1);
+      return new AbstractMap.SimpleImmutableEntry<>(entry);
+    }
+  }
 }
@@ -0,0 +1,123 @@
+package jsontree;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A set of key paths that a JsonTreeBuilder materializes, stored as a trie of keys.
+ * A path such as "/payload/user/name" selects the value of key name inside user inside
+ * payload, with all its children. Arrays are transparent: a path continues into every
+ * element of an array it reaches, so "/items/id" selects the id of every object in items.
+ * Objects and arrays on the way to a selected value are kept, holding only what is selected.
+ */
+public final class JsonProjection {
+  private final List<JsonProjection> nodes;
+  private final int id;
+  private final List<String> keys;
+  private final List<JsonProjection> children;
+  private boolean includesAll;
+
+  /**
+   * Creates a trie node and registers it with its trie.
+   *
+   * @param nodes all nodes of the trie, indexed by id
+   */
+  private JsonProjection(List<JsonProjection> nodes) {
+    this.nodes = nodes;
+    this.id = nodes.size();
+    this.keys = new ArrayList<>();
+    this.children = new ArrayList<>();
+    nodes.add(this);
+  }
+
+  /**
+   * Builds the projection of a set of key paths.
+   *
+   * @param paths the paths, each a sequence of keys every one preceded by a slash
+   * @return the root of the projection
+   * @throws IllegalArgumentException if a path is empty, has no leading slash or an empty key
+   */
+  public static JsonProjection of(String... paths) {
+    JsonProjection root = new JsonProjection(new ArrayList<>());
+    for (String path : paths) {
+      if (!path.startsWith("/") || path.length() == 1) {
+        throw new IllegalArgumentException("invalid path " + path);
+      }
+      JsonProjection node = root;
+      for (String key : path.substring(1).split("/", -1)) {
+        if (key.isEmpty()) {
+          throw new IllegalArgumentException("invalid path " + path);
+        }
+        node = node.addChild(key);
+      }
+      node.includesAll = true;
+    }
+    return root;
+  }
+
+  /**
+   * Looks up the node of a key below this node without creating a String.
+   *
+   * @param key the characters of the key
+   * @return the node of the key, this node if everything below it is selected,
+   *         or null if the key is not selected
+   */
+  JsonProjection child(CharSequence key) {
+    if (includesAll) {
+      return this;
+    }
+    for (int i = 0; i < keys.size(); i++) {
+      String candidate = keys.get(i);
+      if (candidate.length() == key.length() && candidate.contentEquals(key)) {
+        return children.get(i);
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Checks whether everything below this node is selected.
+   *
+   * @return true if the node ends a path
+   */
+  boolean includesAll() {
+    return includesAll;
+  }
+
+  /**
+   * Returns the index of this node in its trie, used to write checkpoints.
+   *
+   * @return the id of the node
+   */
+  int id() {
+    return id;
+  }
+
+  /**
+   * Returns the node of the same trie with the given id.
+   *
+   * @param nodeId the id of the node
+   * @return the node
+   * @throws IndexOutOfBoundsException if there is no such node
+   */
+  JsonProjection node(int nodeId) {
+    return nodes.get(nodeId);
+  }
+
+  /**
+   * Returns the node of a key below this node, creating it if needed.
+   *
+   * @param key the key
+   * @return the child node
+   */
+  private JsonProjection addChild(String key) {
+    int index = keys.indexOf(key);
+    if (index >= 0) {
+      return children.get(index);
+    }
+    JsonProjection child = new JsonProjection(nodes);
+    keys.add(key);
+    children.add(child);
+    return child;
+  }
+}
@@ -1,11 +1,15 @@
 package jsontree;
 
+import java.io.IOException;
+
 /**
  * A concrete implementation of a JSON string node.
  * JsonString class extends JsonNode and represents a string value in a JSON structure.
  * It also overrides default behaviour of equals and hash code functionality.
  */
 public class JsonString extends JsonNode {
+  private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+  private static final long FNV_PRIME = 0x100000001b3L;
   private String value;
 
   /**
@@ -17,15 +21,55 @@ public class JsonString extends JsonNode {
     this.value = value;
   }
 
+  /**
+   * Constructs a JsonString whose characters are provided by a subclass.
+   */
+  JsonString() {
+  }
+
+  /**
+   * Returns the string value.
+   *
+   * @return the characters of the value
+   */
+  String value() {
+    return value;
+  }
+
+  /**
+   * Returns the characters of the value, without creating a String if there is none yet.
+   *
+   * @return the characters of the value
+   */
+  CharSequence text() {
+    return value;
+  }
+
   /**
    * Generates a pretty-printed string representation of the JSON string.
-   * Uses helpther function getSpace to add required spaces.
+   * The value is indented by the level of the node.
    *
    * @return A formatted string representation of the JSON string.
    */
   @Override
   public String prettyPrint() {
-    return getSpace(this.level) + "\"" + value + "\"";
+    return toString(JsonStyle.PRETTY);
+  }
+
+  /**
+   * Writes the value in quotes, indented in the PRETTY style.
+   *
+   * @param out   the destination
+   * @param style the layout to write
+   * @param depth the indentation level
+   * @throws IOException if the destination fails
+   */
+  @Override
+  protected void write(Appendable out, JsonStyle style, int depth) throws IOException {
+    if (style == JsonStyle.PRETTY) {
+      indent(out, depth);
+    }
+    out.append('"').append(text()).append('"');
   }
 
   /**
@@ -45,7 +89,7 @@ public class JsonString extends JsonNode {
       return false;
     }
     JsonString thatObject = (JsonString) otherObject;
-    return (value.equals(thatObject.value));
+    return sameText(text(), thatObject.text());
   }
 
   /**
@@ -59,4 +103,54 @@ public class JsonString extends JsonNode {
     return value.hashCode();
   }
 
+  /**
+   * Computes the fingerprint of the characters.
+   *
+   * @return the fingerprint
+   */
+  @Override
+  protected long computeFingerprint() {
+    return textFingerprint(text());
+  }
+
+  /**
+   * Computes the fingerprint of a string value or key, an FNV-1a hash of its characters.
+   *
+   * @param text the characters
+   * @return the fingerprint
+   */
+  static long textFingerprint(CharSequence text) {
+    long hash = FNV_OFFSET;
+    for (int i = 0; i < text.length(); i++) {
+      hash = (hash ^ text.charAt(i)) * FNV_PRIME;
+    }
+    return mix(hash ^ text.length());
+  }
+
+  /**
+   * Compares two character sequences by content.
+   *
+   * @param first  the first sequence
+   * @param second the second sequence
+   * @return true if both hold the same characters
+   */
+  static boolean sameText(CharSequence first, CharSequence second) {
+    if (first instanceof String) {
+      return ((String) first).contentEquals(second);
+    }
+    if (second instanceof String) {
+      return ((String) second).contentEquals(first);
+    }
+    int length = first.length();
+    if (length != second.length()) {
+      return false;
+    }
+    for (int i = 0; i < length; i++) {
+      if (first.charAt(i) != second.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
 }
\ No newline at end of file
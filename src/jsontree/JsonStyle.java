@@ -0,0 +1,16 @@
+package jsontree;
+
+/**
+ * The layouts a JsonNode can be written in.
+ */
+public enum JsonStyle {
+  /**
+   * The layout of prettyPrint: one value per line, indented by two spaces per level.
+   */
+  PRETTY,
+
+  /**
+   * No whitespace at all.
+   */
+  COMPACT
+}
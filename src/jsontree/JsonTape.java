@@ -0,0 +1,605 @@
+package jsontree;
+
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntUnaryOperator;
+
+import parser.JsonEventHandler;
+import parser.JsonEventParser;
+import validator.Status;
+
+/**
+ * A compact, read-only representation of a whole document.
+ * The structure is stored as a flat tape of long entries and all keys and values share one
+ * character pool, so a document costs a few arrays instead of an object, a list, an entry
+ * and a String per field. Every entry holds its type in the top byte and a payload below:
+ * <ul>
+ *   <li>the start of an object or array points past its end, so it can be skipped at once,</li>
+ *   <li>the end of an object or array points back to its start,</li>
+ *   <li>a key or string value points to its length and characters in the pool.</li>
+ * </ul>
+ * An object holds alternating key and value entries. Nodes are read through IJsonObject and
+ * IJsonArray views that are created on demand and print and hash like a JsonTreeBuilder tree.
+ */
+public final class JsonTape {
+  static final int OBJECT_START = '{';
+  static final int OBJECT_END = '}';
+  static final int ARRAY_START = '[';
+  static final int ARRAY_END = ']';
+  static final int KEY = ':';
+  static final int STRING = '"';
+
+  private static final int TYPE_SHIFT = 56;
+  private static final long PAYLOAD_MASK = (1L << TYPE_SHIFT) - 1;
+
+  private final long[] tape;
+  private final char[] pool;
+  private final CharBuffer poolView;
+
+  /**
+   * Creates a tape from its arrays.
+   *
+   * @param tape the structural entries
+   * @param pool the lengths and characters of all keys and values
+   */
+  private JsonTape(long[] tape, char[] pool) {
+    this.tape = tape;
+    this.pool = pool;
+    this.poolView = CharBuffer.wrap(pool);
+  }
+
+  /**
+   * Parses a complete document into a tape.
+   *
+   * @param json the characters of the document
+   * @return the tape, or null if the document is not valid JSON
+   */
+  public static JsonTape parse(CharSequence json) {
+    Writer writer = new Writer();
+    JsonEventParser parser = new JsonEventParser(writer);
+    parser.input(json);
+    return parser.status() == Status.VALID ? writer.finish() : null;
+  }
+
+  /**
+   * Parses a UTF-8 encoded JSON file into a tape using memory-mapped windows.
+   *
+   * @param path the file to parse
+   * @return the tape, or null if the file content is not valid JSON
+   * @throws IOException if the file cannot be read
+   */
+  public static JsonTape parse(Path path) throws IOException {
+    Writer writer = new Writer();
+    JsonEventParser parser = new JsonEventParser(writer);
+    parser.input(path);
+    return parser.status() == Status.VALID ? writer.finish() : null;
+  }
+
+  /**
+   * Returns a read-only view of the root object.
+   *
+   * @return the root object
+   */
+  public IJsonObject root() {
+    return new TapeObject(this, 0);
+  }
+
+  /**
+   * Copies the document into a regular, modifiable tree.
+   *
+   * @return the root of the tree
+   */
+  public JsonNode toTree() {
+    return toTree(0);
+  }
+
+  /**
+   * Returns the number of structural entries.
+   *
+   * @return the length of the tape
+   */
+  public int tapeLength() {
+    return tape.length;
+  }
+
+  /**
+   * Returns the number of characters used by all keys and values including their lengths.
+   *
+   * @return the length of the character pool
+   */
+  public int poolLength() {
+    return pool.length;
+  }
+
+  /**
+   * Returns the type of an entry.
+   *
+   * @param index the tape index
+   * @return one of the entry type constants
+   */
+  int type(int index) {
+    return (int) (tape[index] >>> TYPE_SHIFT);
+  }
+
+  /**
+   * Returns the index of the entry after a node, skipping over the contents of an object
+   * or array.
+   *
+   * @param index the tape index of a node
+   * @return the tape index after the node
+   */
+  int next(int index) {
+    int type = type(index);
+    if (type == OBJECT_START || type == ARRAY_START) {
+      return (int) (tape[index] & PAYLOAD_MASK);
+    }
+    return index + 1;
+  }
+
+  /**
+   * Returns the number of characters of a key or string value.
+   *
+   * @param index the tape index of the key or string
+   * @return the length
+   */
+  int textLength(int index) {
+    int offset = (int) (tape[index] & PAYLOAD_MASK);
+    return pool[offset] << 16 | pool[offset + 1];
+  }
+
+  /**
+   * Returns the pool offset of the characters of a key or string value.
+   *
+   * @param index the tape index of the key or string
+   * @return the offset of the first character
+   */
+  int textOffset(int index) {
+    return (int) (tape[index] & PAYLOAD_MASK) + 2;
+  }
+
+  /**
+   * Returns the characters of a key or string value without copying them.
+   *
+   * @param index the tape index of the key or string
+   * @return a view of the characters
+   */
+  CharSequence text(int index) {
+    int offset = textOffset(index);
+    return poolView.subSequence(offset, offset + textLength(index));
+  }
+
+  /**
+   * Compares a key or string value with other characters, without creating a view.
+   *
+   * @param index the tape index of the key or string
+   * @param text  the characters to compare with
+   * @return true if both hold the same characters
+   */
+  boolean textEquals(int index, CharSequence text) {
+    int length = textLength(index);
+    if (length != text.length()) {
+      return false;
+    }
+    int offset = textOffset(index);
+    for (int i = 0; i < length; i++) {
+      if (pool[offset + i] != text.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Compares a key or string value with one on another tape, without creating views.
+   *
+   * @param index      the tape index of the key or string
+   * @param other      the other tape
+   * @param otherIndex the index of the key or string on the other tape
+   * @return true if both hold the same characters
+   */
+  private boolean textEquals(int index, JsonTape other, int otherIndex) {
+    int length = textLength(index);
+    return length == other.textLength(otherIndex)
+            && Arrays.equals(pool, textOffset(index), textOffset(index) + length,
+            other.pool, other.textOffset(otherIndex), other.textOffset(otherIndex) + length);
+  }
+
+  /**
+   * Computes the String hash code of a key without creating a String.
+   *
+   * @param index the tape index of the key
+   * @return the hash code a String with the same characters would have
+   */
+  private int textHash(int index) {
+    int hash = 0;
+    int offset = textOffset(index);
+    for (int i = offset; i < offset + textLength(index); i++) {
+      hash = 31 * hash + pool[i];
+    }
+    return hash;
+  }
+
+  /**
+   * Returns the tape indexes of the keys of an object.
+   *
+   * @param index the tape index of the object start
+   * @return the key indexes in order, each followed by its value
+   */
+  private int[] keys(int index) {
+    int size = 0;
+    for (int i = index + 1; type(i) != OBJECT_END; i = next(i + 1)) {
+      size++;
+    }
+    int[] keys = new int[size];
+    for (int i = index + 1, k = 0; type(i) != OBJECT_END; i = next(i + 1), k++) {
+      keys[k] = i;
+    }
+    return keys;
+  }
+
+  /**
+   * Compares the node at a tape index with a node on another tape, straight from the tapes.
+   * Objects are equal if they hold the same key-value pairs in any order, like
+   * JsonObject.equals, and arrays if they hold equal elements in the same order.
+   *
+   * @param index      the tape index of an object, array or string
+   * @param other      the other tape
+   * @param otherIndex the index of the node on the other tape
+   * @return true if the nodes are equal
+   */
+  boolean nodeEquals(int index, JsonTape other, int otherIndex) {
+    int type = type(index);
+    if (type != other.type(otherIndex)) {
+      return false;
+    }
+    switch (type) {
+      case OBJECT_START:
+        int[] keys = keys(index);
+        int[] otherKeys = other.keys(otherIndex);
+        return keys.length == otherKeys.length
+                && matchEntries(keys.length, i -> textHash(keys[i]),
+                  j -> other.textHash(otherKeys[j]),
+                  (i, j) -> textEquals(keys[i], other, otherKeys[j])
+                          && nodeEquals(keys[i] + 1, other, otherKeys[j] + 1));
+      case ARRAY_START:
+        int i = index + 1;
+        int j = otherIndex + 1;
+        for (; type(i) != ARRAY_END && other.type(j) != ARRAY_END; i = next(i), j = other.next(j)) {
+          if (!nodeEquals(i, other, j)) {
+            return false;
+          }
+        }
+        return type(i) == ARRAY_END && other.type(j) == ARRAY_END;
+      default:
+        return textEquals(index, other, otherIndex);
+    }
+  }
+
+  /**
+   * Compares the node at a tape index with a regular tree node, without copying the tape.
+   *
+   * @param index the tape index of an object, array or string
+   * @param node  the node to compare with
+   * @return true if the nodes are equal
+   */
+  boolean nodeEquals(int index, JsonNode node) {
+    if (node instanceof TapeObject || node instanceof TapeArray) {
+      return node.equals(node(index));
+    }
+    switch (type(index)) {
+      case OBJECT_START:
+        if (!(node instanceof JsonObject)) {
+          return false;
+        }
+        List<Map.Entry<String, JsonNode>> entries = ((JsonObject) node).entries();
+        int[] keys = keys(index);
+        return keys.length == entries.size()
+                && matchEntries(keys.length, i -> textHash(keys[i]),
+                  j -> entries.get(j).getKey().hashCode(),
+                  (i, j) -> textEquals(keys[i], entries.get(j).getKey())
+                          && nodeEquals(keys[i] + 1, entries.get(j).getValue()));
+      case ARRAY_START:
+        if (!(node instanceof JsonArray)) {
+          return false;
+        }
+        List<JsonNode> elements = ((JsonArray) node).elements();
+        int position = 0;
+        for (int i = index + 1; type(i) != ARRAY_END; i = next(i), position++) {
+          if (position == elements.size() || !nodeEquals(i, elements.get(position))) {
+            return false;
+          }
+        }
+        return position == elements.size();
+      default:
+        return node instanceof JsonString && textEquals(index, ((JsonString) node).text());
+    }
+  }
+
+  /**
+   * Pairs up the entries of two objects of the same size, ignoring their order.
+   * The entries of the second object are bucketed by key hash, as in JsonObject.equals,
+   * so that each entry is only compared with the entries sharing its bucket.
+   *
+   * @param size      the number of entries of each object
+   * @param thisHash  the key hash of an entry of the first object
+   * @param thatHash  the key hash of an entry of the second object
+   * @param equal     compares the key and value of an entry of each object
+   * @return true if every entry of the first object has its own equal entry in the second
+   */
+  private static boolean matchEntries(int size, IntUnaryOperator thisHash,
+                                      IntUnaryOperator thatHash, EntryEquality equal) {
+    int[] buckets = new int[Integer.highestOneBit(Math.max(1, size * 2 - 1)) << 1];
+    int mask = buckets.length - 1;
+    int[] chain = new int[size];
+    for (int j = size - 1; j >= 0; j--) {
+      int bucket = JsonObject.spread(thatHash.applyAsInt(j)) & mask;
+      chain[j] = buckets[bucket];
+      buckets[bucket] = j + 1;
+    }
+    boolean[] matched = new boolean[size];
+    for (int i = 0; i < size; i++) {
+      int next = buckets[JsonObject.spread(thisHash.applyAsInt(i)) & mask];
+      while (next != 0 && (matched[next - 1] || !equal.test(i, next - 1))) {
+        next = chain[next - 1];
+      }
+      if (next == 0) {
+        return false;
+      }
+      matched[next - 1] = true;
+    }
+    return true;
+  }
+
+  /**
+   * Returns the view of the node at a tape index.
+   *
+   * @param index the tape index of an object, array or string
+   * @return the node
+   */
+  JsonNode node(int index) {
+    switch (type(index)) {
+      case OBJECT_START:
+        return new TapeObject(this, index);
+      case ARRAY_START:
+        return new TapeArray(this, index);
+      default:
+        return new LazyJsonString(poolView, textOffset(index), textLength(index));
+    }
+  }
+
+  /**
+   * Copies the node at a tape index into a regular tree.
+   *
+   * @param index the tape index of an object, array or string
+   * @return the copied node
+   */
+  JsonNode toTree(int index) {
+    switch (type(index)) {
+      case OBJECT_START:
+        JsonObject object = new JsonObject();
+        for (int i = index + 1; type(i) != OBJECT_END; i = next(i + 1)) {
+          object.add(text(i).toString(), toTree(i + 1));
+        }
+        return object;
+      case ARRAY_START:
+        JsonArray array = new JsonArray();
+        for (int i = index + 1; type(i) != ARRAY_END; i = next(i)) {
+          array.add(toTree(i));
+        }
+        return array;
+      default:
+        return new JsonString(text(index).toString());
+    }
+  }
+
+  /**
+   * Computes the fingerprint the node at a tape index would have as a regular tree.
+   *
+   * @param index the tape index of an object, array or string
+   * @return the fingerprint, never 0
+   */
+  long fingerprint(int index) {
+    long fingerprint;
+    switch (type(index)) {
+      case OBJECT_START:
+        long sum = 0;
+        int size = 0;
+        for (int i = index + 1; type(i) != OBJECT_END; i = next(i + 1)) {
+          sum += JsonObject.entryFingerprint(text(i), fingerprint(i + 1));
+          size++;
+        }
+        fingerprint = JsonObject.objectFingerprint(sum, size);
+        break;
+      case ARRAY_START:
+        fingerprint = JsonArray.FINGERPRINT_SEED;
+        for (int i = index + 1; type(i) != ARRAY_END; i = next(i)) {
+          fingerprint = JsonArray.nextFingerprint(fingerprint, fingerprint(i));
+        }
+        break;
+      default:
+        fingerprint = JsonString.textFingerprint(text(index));
+    }
+    return fingerprint == 0 ? 1 : fingerprint;
+  }
+
+  /**
+   * Writes the node at a tape index, in the format of the regular tree nodes.
+   *
+   * @param out   the destination
+   * @param index the tape index of an object, array or string
+   * @param style the layout to write
+   * @param depth the indentation level of the node
+   * @throws IOException if the destination fails
+   */
+  void write(Appendable out, int index, JsonStyle style, int depth) throws IOException {
+    int type = type(index);
+    if (type == STRING) {
+      if (style == JsonStyle.PRETTY) {
+        JsonNode.indent(out, depth);
+      }
+      writeString(out, index);
+      return;
+    }
+    boolean object = type == OBJECT_START;
+    int end = object ? OBJECT_END : ARRAY_END;
+    JsonNode.writeStart(out, object ? '{' : '[', style, depth);
+    int position = 0;
+    for (int i = index + 1; type(i) != end; i = next(i), position++) {
+      if (object) {
+        boolean nested = type(i + 1) != STRING;
+        JsonNode.writeSeparator(out, position, style);
+        if (style == JsonStyle.PRETTY) {
+          JsonNode.indent(out, depth + 1);
+        }
+        writeString(out, i);
+        out.append(':');
+        if (nested && style == JsonStyle.PRETTY) {
+          out.append('\n');
+        }
+        i++;
+        write(out, i, style, nested ? depth + 1 : 0);
+      } else {
+        JsonNode.writeSeparator(out, position, style);
+        write(out, i, style, depth + 1);
+      }
+    }
+    JsonNode.writeEnd(out, object ? '}' : ']', style, depth);
+  }
+
+  /**
+   * Writes a key or string value in quotes.
+   *
+   * @param out   the destination
+   * @param index the tape index of the key or string
+   * @throws IOException if the destination fails
+   */
+  private void writeString(Appendable out, int index) throws IOException {
+    int offset = textOffset(index);
+    out.append('"').append(poolView, offset, offset + textLength(index)).append('"');
+  }
+
+  /**
+   * Compares an entry of one object with an entry of another.
+   */
+  private interface EntryEquality {
+    /**
+     * Compares two entries.
+     *
+     * @param thisEntry the position of the entry in the first object
+     * @param thatEntry the position of the entry in the second object
+     * @return true if the keys and values are equal
+     */
+    boolean test(int thisEntry, int thatEntry);
+  }
+
+  /**
+   * Writes the events of a JsonEventParser to a growing tape and pool.
+   */
+  private static final class Writer implements JsonEventHandler {
+    private long[] tape = new long[64];
+    private int tapeSize;
+    private char[] pool = new char[256];
+    private int poolSize;
+    private int[] openStarts = new int[16];
+    private int depth;
+
+    @Override
+    public void startObject() {
+      open(OBJECT_START);
+    }
+
+    @Override
+    public void endObject() {
+      close(OBJECT_END);
+    }
+
+    @Override
+    public void startArray() {
+      open(ARRAY_START);
+    }
+
+    @Override
+    public void endArray() {
+      close(ARRAY_END);
+    }
+
+    @Override
+    public void key(CharSequence key) {
+      appendText(KEY, key);
+    }
+
+    @Override
+    public void stringValue(CharSequence value) {
+      appendText(STRING, value);
+    }
+
+    /**
+     * Trims the arrays to their used size.
+     *
+     * @return the completed tape
+     */
+    private JsonTape finish() {
+      return new JsonTape(Arrays.copyOf(tape, tapeSize), Arrays.copyOf(pool, poolSize));
+    }
+
+    /**
+     * Appends the start of an object or array, completed when it closes.
+     *
+     * @param type the start entry type
+     */
+    private void open(int type) {
+      if (depth == openStarts.length) {
+        openStarts = Arrays.copyOf(openStarts, depth * 2);
+      }
+      openStarts[depth++] = tapeSize;
+      append(type, 0);
+    }
+
+    /**
+     * Appends the end of an object or array and links it with its start.
+     *
+     * @param type the end entry type
+     */
+    private void close(int type) {
+      int start = openStarts[--depth];
+      append(type, start);
+      tape[start] |= tapeSize;
+    }
+
+    /**
+     * Appends a key or string entry and copies its length and characters into the pool.
+     *
+     * @param type the entry type
+     * @param text the characters
+     */
+    private void appendText(int type, CharSequence text) {
+      int length = text.length();
+      if (poolSize + length + 2 > pool.length) {
+        pool = Arrays.copyOf(pool, Math.max(pool.length * 2, poolSize + length + 2));
+      }
+      append(type, poolSize);
+      pool[poolSize++] = (char) (length >>> 16);
+      pool[poolSize++] = (char) length;
+      for (int i = 0; i < length; i++) {
+        pool[poolSize++] = text.charAt(i);
+      }
+    }
+
+    /**
+     * Appends a single entry.
+     *
+     * @param type    the entry type
+     * @param payload the index or offset stored with it
+     */
+    private void append(int type, long payload) {
+      if (tapeSize == tape.length) {
+        tape = Arrays.copyOf(tape, tapeSize * 2);
+      }
+      tape[tapeSize++] = (long) type << TYPE_SHIFT | payload;
+    }
+  }
+}
@@ -1,5 +1,14 @@
 package jsontree;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Stack;
 
 import parser.AbstractJsonParser;
@@ -17,9 +26,26 @@ import validator.Status;
  */
 public class JsonTreeBuilder extends AbstractJsonParser<JsonNode> {
 
+  private static final byte OBJECT_NODE = 'O';
+  private static final byte ARRAY_NODE = 'A';
+  private static final byte STRING_NODE = 'S';
+  private static final byte KEY_ENTRY = 'K';
+
   private JsonNode jsonRootNode;
   private Stack<Object> nodeStack;
   private StringBuilder currentStringValue;
+  private final int emitDepth;
+  private final JsonNodeHandler emitHandler;
+  private final JsonProjection projection;
+  private final List<JsonProjection> projectionStack;
+  private JsonProjection keyProjection;
+  private int skipDepth;
+  private boolean lazyStrings;
+  private CharSequence valueSource;
+  private int valueStart;
+  private int valueEnd;
+  private AsciiBytes lastBytes;
+  private KeySymbolTable keySymbols;
 
   /**
    * Initializes a new JSON validator with default values.
@@ -28,9 +54,104 @@ public class JsonTreeBuilder extends AbstractJsonParser<JsonNode> {
    * Sets the current state to EMPTY and jsonRootNode to NULL.
    */
   public JsonTreeBuilder() {
+    this(0, null, null);
+  }
+
+  /**
+   * Initializes a builder that hands completed children at one depth to a handler.
+   * Depth 1 holds the values of the root object, depth 2 their values and elements, and so on.
+   * Emitted children are detached from their parent, so a root holding millions of them is
+   * read with bounded heap. The root returned by output lacks the emitted children.
+   *
+   * @param emitDepth the depth of the children to emit
+   * @param handler   receives every completed child at that depth
+   * @throws IllegalArgumentException if emitDepth is less than 1
+   */
+  public JsonTreeBuilder(int emitDepth, JsonNodeHandler handler) {
+    this(checkEmitDepth(emitDepth), Objects.requireNonNull(handler), null);
+  }
+
+  /**
+   * Initializes a builder that only materializes the values selected by a projection.
+   * Everything else is still validated but skipped without creating nodes or strings.
+   *
+   * @param projection the key paths to materialize
+   */
+  public JsonTreeBuilder(JsonProjection projection) {
+    this(0, null, Objects.requireNonNull(projection));
+  }
+
+  /**
+   * Initializes the builder fields.
+   *
+   * @param emitDepth  the depth of the children to emit, 0 to keep all
+   * @param handler    receives the emitted children, or null
+   * @param projection the key paths to materialize, or null for all
+   */
+  private JsonTreeBuilder(int emitDepth, JsonNodeHandler handler, JsonProjection projection) {
     nodeStack = new Stack<>();
     currentStringValue = new StringBuilder();
     jsonRootNode = null;
+    this.emitDepth = emitDepth;
+    this.emitHandler = handler;
+    this.projection = projection;
+    this.projectionStack = new ArrayList<>();
+    this.skipDepth = -1;
+    this.keySymbols = KeySymbolTable.shared();
+  }
+
+  /**
+   * Builds the tree of a UTF-8 encoded JSON file using memory-mapped windows.
+   * Only the resulting tree is kept on the heap, the file content is never copied.
+   *
+   * @param path the file to parse
+   * @return the root node, or null if the file content is not valid JSON
+   * @throws IOException if the file cannot be read
+   */
+  public static JsonNode build(Path path) throws IOException {
+    JsonTreeBuilder builder = new JsonTreeBuilder();
+    builder.input(path);
+    return builder.output();
+  }
+
+  /**
+   * Returns the builder to its initial state so that it can build another tree.
+   * The node stack and the value buffer keep their capacity, the previous tree is released.
+   */
+  @Override
+  public void reset() {
+    super.reset();
+    nodeStack.clear();
+    currentStringValue.setLength(0);
+    jsonRootNode = null;
+    projectionStack.clear();
+    keyProjection = null;
+    skipDepth = -1;
+    valueSource = null;
+    lastBytes = null;
+  }
+
+  /**
+   * Makes the builder create string nodes that refer to their characters in the input
+   * instead of copying them, for input given as a char array, a CharSequence or UTF-8 bytes.
+   * A value is only copied if it is split across input calls or, for bytes, is not ASCII.
+   * The input must not be modified while the tree is in use, and a mapped file stays mapped.
+   *
+   * @param lazyStrings true to refer to the input, false to copy every value
+   */
+  public void setLazyStrings(boolean lazyStrings) {
+    this.lazyStrings = lazyStrings;
+  }
+
+  /**
+   * Makes the builder resolve keys through a table, which can be shared with other builders
+   * on any thread so that all their trees use the same String for the same key.
+   * Every builder starts with the shared table, so creating a builder allocates no table.
+   *
+   * @param keySymbols the table to resolve keys with
+   */
+  public void setKeySymbols(KeySymbolTable keySymbols) {
+    this.keySymbols = Objects.requireNonNull(keySymbols);
   }
 
   /**
@@ -45,7 +166,7 @@ public class JsonTreeBuilder extends AbstractJsonParser<JsonNode> {
    */
   @Override
   public JsonParser<JsonNode> input(char c) throws InvalidJsonException {
-    if (currentStatus.equals(String.valueOf(Status.INVALID)) || canSkipWhiteSpace(c)) {
+    if (isInvalid() || canSkipWhiteSpace(c)) {
       return this;
     }
     processStateMachine(c);
@@ -63,6 +184,133 @@ public class JsonTreeBuilder extends AbstractJsonParser<JsonNode> {
     return jsonRootNode;
   }
 
+  /**
+   * Writes the tree built so far: the root once it is complete, and otherwise the path of
+   * open objects, arrays and keys with their completed children, and the text being read.
+   * The position in the projection, if any, is written by node id.
+   *
+   * @param out the checkpoint being written
+   * @throws IOException if writing fails
+   */
+  @Override
+  protected void writeCheckpoint(DataOutput out) throws IOException {
+    flushValueSource();
+    out.writeBoolean(jsonRootNode != null);
+    if (jsonRootNode != null) {
+      writeNode(out, jsonRootNode);
+    }
+    out.writeInt(nodeStack.size());
+    for (Object entry : nodeStack) {
+      if (entry instanceof String) {
+        out.writeByte(KEY_ENTRY);
+        writeText(out, entry.toString());
+      } else {
+        writeNode(out, (JsonNode) entry);
+      }
+    }
+    writeText(out, currentStringValue.toString());
+    out.writeInt(skipDepth);
+    out.writeInt(keyProjection == null ? -1 : keyProjection.id());
+    out.writeInt(projectionStack.size());
+    for (JsonProjection open : projectionStack) {
+      out.writeInt(open.id());
+    }
+  }
+
+  /**
+   * Reads the tree written by writeCheckpoint.
+   *
+   * @param in the checkpoint being read
+   * @return the action replacing the tree with the one read
+   * @throws IOException if reading fails or a node type is unknown
+   */
+  @Override
+  protected Runnable readCheckpoint(DataInput in) throws IOException {
+    JsonNode root = in.readBoolean() ? readNode(in, in.readByte()) : null;
+    List<Object> entries = new ArrayList<>();
+    for (int size = in.readInt(); size > 0; size--) {
+      byte type = in.readByte();
+      entries.add(type == KEY_ENTRY ? readText(in) : readNode(in, type));
+    }
+    String text = readText(in);
+    int depth = in.readInt();
+    int keyId = in.readInt();
+    JsonProjection key = keyId < 0 ? null : projectionNode(keyId);
+    List<JsonProjection> open = new ArrayList<>();
+    for (int size = in.readInt(); size > 0; size--) {
+      open.add(projectionNode(in.readInt()));
+    }
+    return () -> {
+      jsonRootNode = root;
+      nodeStack.clear();
+      for (Object entry : entries) {
+        nodeStack.push(entry instanceof String ? keySymbols.intern((String) entry) : entry);
+      }
+      currentStringValue.setLength(0);
+      currentStringValue.append(text);
+      valueSource = null;
+      skipDepth = depth;
+      keyProjection = key;
+      projectionStack.clear();
+      projectionStack.addAll(open);
+    };
+  }
+
+  /**
+   * Looks up a node of the projection by the id stored in a checkpoint.
+   *
+   * @param id the id of the node
+   * @return the node
+   * @throws IOException if the builder has no projection or no such node
+   */
+  private JsonProjection projectionNode(int id) throws IOException {
+    if (projection == null) {
+      throw new IOException("checkpoint of a projecting builder");
+    }
+    return projection.node(id);
+  }
+
+  /**
+   * Appends a run of value characters to the current value.
+   *
+   * @param chars the input characters
+   * @param from  index of the first character of the run
+   * @param to    index after the last character of the run
+   */
+  @Override
+  protected void handleValueChars(CharSequence chars, int from, int to) {
+    if (isSkipping()) {
+      return;
+    }
+    appendValueRun(chars, from, to);
+  }
+
+  /**
+   * Appends a run of ASCII value bytes read from UTF-8 input to the current value.
+   * None of the bytes is a quote, so the value stays open.
+   *
+   * @param buffer the UTF-8 input
+   * @param from   index of the first byte of the run
+   * @param to     index after the last byte of the run
+   */
+  @Override
+  protected void handleValueBytes(ByteBuffer buffer, int from, int to) {
+    if (isSkipping()) {
+      return;
+    }
+    if (lazyStrings) {
+      if (lastBytes == null || !lastBytes.isViewOf(buffer)) {
+        lastBytes = new AsciiBytes(buffer);
+      }
+      appendValueRun(lastBytes, from, to);
+      return;
+    }
+    currentStringValue.ensureCapacity(currentStringValue.length() + to - from);
+    for (int i = from; i < to; i++) {
+      currentStringValue.append((char) buffer.get(i));
+    }
+  }
+
   /**
    * Processes the current character based on the validator's current state.
    * This method gives the input character to the appropriate current state
@@ -73,7 +321,8 @@ public class JsonTreeBuilder extends AbstractJsonParser<JsonNode> {
    * @param c The character to be processed
    * @throws InvalidJsonException if the character is invalid for the current state
    */
-  private void processStateMachine(char c) throws InvalidJsonException {
+  @Override
+  protected void processStateMachine(char c) throws InvalidJsonException {
     switch (currentState) {
       case INITIALIZATION:
         handleInitialization(c);
@@ -110,7 +359,7 @@ public class JsonTreeBuilder extends AbstractJsonParser<JsonNode> {
    * @throws InvalidJsonException always throws an invalid json exception
    */
   protected void throwInvalidJson(String message) throws InvalidJsonException {
-    currentStatus = String.valueOf(Status.INVALID);
+    currentStatus = Status.INVALID;
     jsonRootNode = null;
     throw new InvalidJsonException("Error: " + message + "State :" + currentState.getDescription());
   }
@@ -128,10 +377,12 @@ public class JsonTreeBuilder extends AbstractJsonParser<JsonNode> {
       throwInvalidJson("json should start with {");
     }
     nodeStack.push(new JsonObject());
-    characterStack.push(OPEN_BRACE);
-    flowerBraces++;
+    nestingStack.pushObject();
+    if (projection != null) {
+      projectionStack.add(projection);
+    }
     currentState = JsonStateMachine.EXPECT_KEY;
-    currentStatus = String.valueOf(Status.INCOMPLETE);
+    currentStatus = Status.INCOMPLETE;
   }
 
   /**
@@ -145,7 +396,9 @@ public class JsonTreeBuilder extends AbstractJsonParser<JsonNode> {
     if (!Character.isLetter(c)) {
       throwInvalidJson("json first char should be letter");
     }
-    currentStringValue.append(c);
+    if (!isSkipping()) {
+      currentStringValue.append(c);
+    }
     firstCharacter = false;
   }
 
@@ -163,10 +416,14 @@ public class JsonTreeBuilder extends AbstractJsonParser<JsonNode> {
       return;
     }
     if (c != QUOTE) {
-      currentStringValue.append(c);
+      if (!isSkipping()) {
+        currentStringValue.append(c);
+      }
     } else {
-      nodeStack.push(currentStringValue);
-      currentStringValue = new StringBuilder("");
+      if (selectKey()) {
+        nodeStack.push(keySymbols.intern(currentStringValue));
+      }
+      currentStringValue.setLength(0);
       currentState = JsonStateMachine.END_KEY;
       firstCharacter = true;
       return;
@@ -188,7 +445,7 @@ public class JsonTreeBuilder extends AbstractJsonParser<JsonNode> {
     if (c != COLON) {
       throwInvalidJson("key should be followed by :");
     }
-    currentStringValue = new StringBuilder("");
+    currentStringValue.setLength(0);
     currentState = JsonStateMachine.EXPECT_VALUE_OR_NESTED_OBJECT;
   }
 
@@ -198,8 +455,11 @@ public class JsonTreeBuilder extends AbstractJsonParser<JsonNode> {
    */
   private void handleArrayOpening() {
     currentState = JsonStateMachine.EXPECT_VALUE_OR_NESTED_OBJECT;
-    characterStack.push(OPEN_BRACKET);
-    nodeStack.push(new JsonArray());
+    boolean selected = startValue(true);
+    nestingStack.pushArray();
+    if (selected) {
+      nodeStack.push(new JsonArray());
+    }
   }
 
   /**
@@ -238,13 +498,24 @@ public class JsonTreeBuilder extends AbstractJsonParser<JsonNode> {
 
   private void handleValue(char c) {
     if (c != QUOTE) {
-      currentStringValue.append(c);
+      if (!isSkipping()) {
+        flushValueSource();
+        currentStringValue.append(c);
+      }
+      return;
     }
-    if (c == QUOTE) {
+    currentState = JsonStateMachine.FINAL_STAGE;
+    if (isSkipping()) {
+      finishSkippedValue();
+      return;
+    }
+    if (valueSource != null) {
+      addValueToParent(new LazyJsonString(valueSource, valueStart, valueEnd - valueStart));
+      valueSource = null;
+    } else {
       addValueToParent(new JsonString(currentStringValue.toString()));
-      currentStringValue = new StringBuilder("");
-      currentState = JsonStateMachine.FINAL_STAGE;
     }
+    currentStringValue.setLength(0);
   }
 
   /**
@@ -282,12 +553,14 @@ public class JsonTreeBuilder extends AbstractJsonParser<JsonNode> {
    */
   private void processValueAsStringOrObject(char c) throws InvalidJsonException {
     if (c == QUOTE) {
-      currentStringValue = new StringBuilder("");
+      startValue(false);
+      currentStringValue.setLength(0);
       currentState = JsonStateMachine.EXPECT_VALUE;
     } else if (c == OPEN_BRACE) {
-      nodeStack.push(new JsonObject());
-      characterStack.push(OPEN_BRACE);
-      flowerBraces++;
+      if (startValue(true)) {
+        nodeStack.push(new JsonObject());
+      }
+      nestingStack.pushObject();
       currentState = JsonStateMachine.EXPECT_KEY;
     }
   }
@@ -314,11 +587,16 @@ public class JsonTreeBuilder extends AbstractJsonParser<JsonNode> {
    * @throws InvalidJsonException if the closing brace is invalid.
    */
   private void handleFlowerClosing(char c) throws InvalidJsonException {
-    if (characterStack.peek() == OPEN_BRACE) {
-      characterStack.pop();
-      flowerBraces--;
-      if (flowerBraces == 0) {
-        currentStatus = String.valueOf(Status.VALID);
+    if (nestingStack.isObjectOnTop()) {
+      nestingStack.pop();
+      if (isSkipping()) {
+        currentState = JsonStateMachine.FINAL_STAGE;
+        finishSkippedValue();
+        return;
+      }
+      closeProjection();
+      if (nestingStack.isEmpty()) {
+        currentStatus = Status.VALID;
         currentState = JsonStateMachine.END;
         jsonRootNode = (JsonNode) nodeStack.peek();
         nodeStack.pop();
@@ -340,27 +618,244 @@ public class JsonTreeBuilder extends AbstractJsonParser<JsonNode> {
    * @throws InvalidJsonException if the closing bracket is invalid
    */
   private void handleBracketClosing(char c) throws InvalidJsonException {
-    if (characterStack.peek() == OPEN_BRACKET) {
-      characterStack.pop();
+    if (nestingStack.isArrayOnTop()) {
+      nestingStack.pop();
       currentState = JsonStateMachine.FINAL_STAGE;
+      if (isSkipping()) {
+        finishSkippedValue();
+        return;
+      }
+      closeProjection();
       pushValuesIntoArray();
     } else {
       throwInvalidJson("error in closing array with ]");
     }
   }
 
+  /**
+   * Writes a node and all its children, each preceded by its type.
+   *
+   * @param out  the checkpoint being written
+   * @param node the node to write
+   * @throws IOException if writing fails
+   */
+  private static void writeNode(DataOutput out, JsonNode node) throws IOException {
+    if (node instanceof JsonObject) {
+      List<Map.Entry<String, JsonNode>> entries = ((JsonObject) node).entries();
+      out.writeByte(OBJECT_NODE);
+      out.writeInt(entries.size());
+      for (Map.Entry<String, JsonNode> entry : entries) {
+        writeText(out, entry.getKey());
+        writeNode(out, entry.getValue());
+      }
+    } else if (node instanceof JsonArray) {
+      List<JsonNode> elements = ((JsonArray) node).elements();
+      out.writeByte(ARRAY_NODE);
+      out.writeInt(elements.size());
+      for (JsonNode element : elements) {
+        writeNode(out, element);
+      }
+    } else {
+      out.writeByte(STRING_NODE);
+      writeText(out, ((JsonString) node).value());
+    }
+  }
+
+  /**
+   * Reads a node written by writeNode.
+   *
+   * @param in   the checkpoint being read
+   * @param type the type of the node, already read
+   * @return the node with all its children
+   * @throws IOException if reading fails or the type is unknown
+   */
+  private static JsonNode readNode(DataInput in, byte type) throws IOException {
+    switch (type) {
+      case OBJECT_NODE:
+        JsonObject object = new JsonObject();
+        for (int size = in.readInt(); size > 0; size--) {
+          String key = readText(in);
+          object.add(key, readNode(in, in.readByte()));
+        }
+        return object;
+      case ARRAY_NODE:
+        JsonArray array = new JsonArray();
+        for (int size = in.readInt(); size > 0; size--) {
+          array.add(readNode(in, in.readByte()));
+        }
+        return array;
+      case STRING_NODE:
+        return new JsonString(readText(in));
+      default:
+        throw new IOException("unknown node type " + type);
+    }
+  }
+
+  /**
+   * Writes a text of any length as its length followed by its chars.
+   *
+   * @param out  the checkpoint being written
+   * @param text the text to write
+   * @throws IOException if writing fails
+   */
+  private static void writeText(DataOutput out, String text) throws IOException {
+    out.writeInt(text.length());
+    out.writeChars(text);
+  }
+
+  /**
+   * Reads a text written by writeText.
+   *
+   * @param in the checkpoint being read
+   * @return the text
+   * @throws IOException if reading fails or the length exceeds the bytes left
+   */
+  private static String readText(DataInput in) throws IOException {
+    char[] text = new char[readLength(in, Character.BYTES)];
+    for (int i = 0; i < text.length; i++) {
+      text[i] = in.readChar();
+    }
+    return new String(text);
+  }
+
+  /**
+   * Appends a run of value characters, or only remembers where it is in the input if it is
+   * the first part of the value and strings are lazy.
+   *
+   * @param chars the input characters
+   * @param from  index of the first character of the run
+   * @param to    index after the last character of the run
+   */
+  private void appendValueRun(CharSequence chars, int from, int to) {
+    if (lazyStrings && valueSource == null && currentStringValue.length() == 0) {
+      valueSource = chars;
+      valueStart = from;
+      valueEnd = to;
+      return;
+    }
+    flushValueSource();
+    currentStringValue.append(chars, from, to);
+  }
+
+  /**
+   * Copies a remembered run of value characters into the current value.
+   */
+  private void flushValueSource() {
+    if (valueSource != null) {
+      currentStringValue.append(valueSource, valueStart, valueEnd);
+      valueSource = null;
+    }
+  }
+
+  /**
+   * Checks whether the value being read is skipped because the projection does not select it.
+   *
+   * @return true while a value is skipped
+   */
+  private boolean isSkipping() {
+    return skipDepth >= 0;
+  }
+
+  /**
+   * Looks up a completed key in the projection of the enclosing object.
+   * The key is matched in place, so skipped keys never become a String.
+   *
+   * @return true if the value of the key may be selected and the key must be kept
+   */
+  private boolean selectKey() {
+    if (isSkipping()) {
+      return false;
+    }
+    if (projection == null) {
+      return true;
+    }
+    keyProjection = projectionStack.get(projectionStack.size() - 1).child(currentStringValue);
+    return keyProjection != null;
+  }
+
+  /**
+   * Decides whether the value starting now is materialized, and starts skipping it if not.
+   * An array passes the projection of its key on to its elements. Strings are only kept
+   * where the projection selects everything, objects and arrays also on the way there.
+   * A key kept by selectKey whose value turns out to be skipped is dropped again.
+   *
+   * @param container true for an object or array, false for a string
+   * @return true if the value is materialized
+   */
+  private boolean startValue(boolean container) {
+    if (projection == null) {
+      return true;
+    }
+    if (isSkipping()) {
+      return false;
+    }
+    boolean inArray = nestingStack.isArrayOnTop();
+    JsonProjection selected = inArray ? projectionStack.get(projectionStack.size() - 1)
+            : keyProjection;
+    if (selected == null || !(container || selected.includesAll())) {
+      if (selected != null && !inArray) {
+        nodeStack.pop();
+      }
+      skipDepth = nestingStack.depth();
+      return false;
+    }
+    if (container) {
+      projectionStack.add(selected);
+    }
+    return true;
+  }
+
+  /**
+   * Stops skipping once the skipped value has ended at the depth it started at.
+   */
+  private void finishSkippedValue() {
+    if (nestingStack.depth() == skipDepth) {
+      skipDepth = -1;
+    }
+  }
+
+  /**
+   * Leaves the projection of a materialized object or array that has closed.
+   */
+  private void closeProjection() {
+    if (projection != null) {
+      projectionStack.remove(projectionStack.size() - 1);
+    }
+  }
+
+  /**
+   * Checks that an emit depth selects children of the root or below.
+   *
+   * @param emitDepth the requested emit depth
+   * @return the emit depth
+   * @throws IllegalArgumentException if emitDepth is less than 1
+   */
+  private static int checkEmitDepth(int emitDepth) {
+    if (emitDepth < 1) {
+      throw new IllegalArgumentException("emit depth must be at least 1");
+    }
+    return emitDepth;
+  }
+
   /**
    * Receives JsonNode and adds it to array or object depending on current state.
+   * A value at the emit depth is handed to the handler instead.
    *
    * @param value The recently processed JsonNode value
    */
   private void addValueToParent(JsonNode value) {
+    boolean emit = emitHandler != null && nestingStack.depth() == emitDepth;
     Object parent = nodeStack.peek();
-    if (parent instanceof StringBuilder) {
-      String key = nodeStack.peek().toString();
-      nodeStack.pop();
+    if (parent instanceof String) {
+      String key = (String) nodeStack.pop();
+      if (emit) {
+        emitHandler.completed(key, value);
+        return;
+      }
       IJsonObject obj = (IJsonObject) nodeStack.peek();
       obj.add(key, value);
+    } else if (emit) {
+      emitHandler.completed(null, value);
     } else if (parent instanceof IJsonArray) {
       ((IJsonArray) parent).add(value);
     }
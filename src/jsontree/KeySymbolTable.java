@@ -0,0 +1,98 @@
+package jsontree;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded cache that resolves the characters of object keys to one canonical String.
+ * Keys repeat across the objects and documents of a data set, so builders sharing a table
+ * keep a single String per key, whose hash code is computed once and cached by String.
+ * The table is direct-mapped: a key lives in the slot selected by its hash, and a different
+ * key with the same slot overwrites it. Hostile inputs can only evict entries and never
+ * grow the table. Keys longer than the length limit are never cached.
+ * A table can be shared by any number of threads.
+ */
+public final class KeySymbolTable {
+  private static final int DEFAULT_CAPACITY = 1024;
+  private static final int DEFAULT_MAX_KEY_LENGTH = 64;
+  private static final KeySymbolTable SHARED = new KeySymbolTable();
+
+  private final AtomicReferenceArray<String> slots;
+  private final int mask;
+  private final int maxKeyLength;
+
+  /**
+   * Creates a table with 1024 slots caching keys of up to 64 characters.
+   */
+  public KeySymbolTable() {
+    this(DEFAULT_CAPACITY, DEFAULT_MAX_KEY_LENGTH);
+  }
+
+  /**
+   * Creates a table.
+   *
+   * @param capacity     the number of slots, rounded up to a power of two
+   * @param maxKeyLength the length of the longest key to cache
+   * @throws IllegalArgumentException if capacity is not between 1 and 2^30 or
+   *                                  maxKeyLength is negative
+   */
+  public KeySymbolTable(int capacity, int maxKeyLength) {
+    if (capacity <= 0 || capacity > 1 << 30) {
+      throw new IllegalArgumentException("capacity must be between 1 and 2^30");
+    }
+    if (maxKeyLength < 0) {
+      throw new IllegalArgumentException("max key length must not be negative");
+    }
+    int size = Integer.highestOneBit(capacity);
+    if (size < capacity) {
+      size <<= 1;
+    }
+    this.slots = new AtomicReferenceArray<>(size);
+    this.mask = size - 1;
+    this.maxKeyLength = maxKeyLength;
+  }
+
+  /**
+   * Returns the table shared by all builders that were not given one of their own.
+   * It has 1024 slots and caches keys of up to 64 characters.
+   *
+   * @return the shared table
+   */
+  public static KeySymbolTable shared() {
+    return SHARED;
+  }
+
+  /**
+   * Returns the canonical String with the given characters.
+   * No object is allocated if the key is already cached.
+   *
+   * @param chars the characters of the key
+   * @return a String equal to the characters
+   */
+  public String intern(CharSequence chars) {
+    int length = chars.length();
+    if (length > maxKeyLength) {
+      return chars.toString();
+    }
+    int hash = 0;
+    for (int i = 0; i < length; i++) {
+      hash = 31 * hash + chars.charAt(i);
+    }
+    int slot = (hash ^ (hash >>> 16)) & mask;
+    String cached = slots.get(slot);
+    if (cached != null && cached.hashCode() == hash && cached.contentEquals(chars)) {
+      return cached;
+    }
+    String key = chars.toString();
+    slots.set(slot, key);
+    return key;
+  }
+
+  /**
+   * Returns the number of slots.
+   *
+   * @return the capacity of the table
+   */
+  public int capacity() {
+    return slots.length();
+  }
+}
@@ -0,0 +1,110 @@
+package jsontree;
+
+/**
+ * A JsonString that refers to its characters in the parser input instead of copying them.
+ * The String is only created when it is asked for, equals, hashCode and prettyPrint read the
+ * characters in place. The input must not be modified while the node is in use.
+ */
+final class LazyJsonString extends JsonString implements CharSequence {
+  private final CharSequence source;
+  private final int offset;
+  private final int length;
+  private String materialized;
+  private int hash;
+
+  /**
+   * Creates a string node over a slice of the input.
+   *
+   * @param source the input characters
+   * @param offset index of the first character of the value
+   * @param length number of characters of the value
+   */
+  LazyJsonString(CharSequence source, int offset, int length) {
+    this.source = source;
+    this.offset = offset;
+    this.length = length;
+  }
+
+  /**
+   * Creates the String of the value on first use.
+   *
+   * @return the characters of the value
+   */
+  @Override
+  String value() {
+    if (materialized == null) {
+      materialized = source.subSequence(offset, offset + length).toString();
+    }
+    return materialized;
+  }
+
+  /**
+   * Returns the String if it was created already, otherwise the slice itself.
+   *
+   * @return the characters of the value
+   */
+  @Override
+  CharSequence text() {
+    return materialized != null ? materialized : this;
+  }
+
+  /**
+   * Computes the same hash code as the String of the value, without creating it.
+   *
+   * @return The computed hash code.
+   */
+  @Override
+  public int hashCode() {
+    int h = hash;
+    if (h == 0) {
+      for (int i = offset; i < offset + length; i++) {
+        h = 31 * h + source.charAt(i);
+      }
+      hash = h;
+    }
+    return h;
+  }
+
+  /**
+   * Returns the number of characters of the value.
+   *
+   * @return the length
+   */
+  @Override
+  public int length() {
+    return length;
+  }
+
+  /**
+   * Returns a character of the value.
+   *
+   * @param index index within the value
+   * @return the character
+   */
+  @Override
+  public char charAt(int index) {
+    return source.charAt(offset + index);
+  }
+
+  /**
+   * Returns a part of the value.
+   *
+   * @param start index of the first character within the value
+   * @param end   index after the last character within the value
+   * @return the characters between start and end
+   */
+  @Override
+  public CharSequence subSequence(int start, int end) {
+    return source.subSequence(offset + start, offset + end);
+  }
+
+  /**
+   * Returns the value as a String.
+   *
+   * @return the characters of the value
+   */
+  @Override
+  public String toString() {
+    return value();
+  }
+}
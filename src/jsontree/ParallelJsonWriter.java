@@ -0,0 +1,231 @@
+package jsontree;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Writes a large tree on several cores.
+ * Objects and arrays with more children than the segment size are split into segments of
+ * consecutive children. Every segment is written to its own buffer on a ForkJoinPool and
+ * only remembers where the segments of its large children go, so no buffer is ever copied
+ * into another. The buffers are appended to the destination in order as they complete, and
+ * the text is the same as the text written by writeTo. Segments split their own large
+ * children again. Smaller containers are written by the task that reaches them.
+ * The tree must not be modified while it is written.
+ */
+public class ParallelJsonWriter {
+  private static final int DEFAULT_SEGMENT_SIZE = 1024;
+
+  private final ForkJoinPool pool;
+  private final int segmentSize;
+
+  /**
+   * Creates a writer running on the common pool with segments of 1024 children.
+   */
+  public ParallelJsonWriter() {
+    this(ForkJoinPool.commonPool(), DEFAULT_SEGMENT_SIZE);
+  }
+
+  /**
+   * Creates a writer running on the given pool.
+   *
+   * @param pool        the pool to write the segments on
+   * @param segmentSize the number of children per segment
+   * @throws IllegalArgumentException if segmentSize is not positive
+   */
+  public ParallelJsonWriter(ForkJoinPool pool, int segmentSize) {
+    if (segmentSize <= 0) {
+      throw new IllegalArgumentException("segment size must be positive");
+    }
+    this.pool = pool;
+    this.segmentSize = segmentSize;
+  }
+
+  /**
+   * Writes a tree to a String.
+   *
+   * @param node  the root of the tree
+   * @param style the layout to write
+   * @return the same text as node.toString(style)
+   */
+  public String toString(JsonNode node, JsonStyle style) {
+    StringBuilder result = new StringBuilder();
+    try {
+      writeTo(node, result, style);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return result.toString();
+  }
+
+  /**
+   * Writes a tree to a destination, starting at the level of its root like writeTo.
+   * The segments are written in parallel and appended in order while later ones are still
+   * being written.
+   *
+   * @param node  the root of the tree
+   * @param out   the destination
+   * @param style the layout to write
+   * @throws IOException if the destination fails
+   */
+  public void writeTo(JsonNode node, Appendable out, JsonStyle style) throws IOException {
+    Segment root = new Segment(node, style, node.level, -1, -1);
+    pool.execute(root);
+    append(root, out);
+  }
+
+  /**
+   * Appends the text of a segment, with the segments of its large children in their places.
+   * Waits for every segment to complete before appending it.
+   *
+   * @param segment the segment to append
+   * @param out     the destination
+   * @throws IOException if the destination fails
+   */
+  private static void append(Segment segment, Appendable out) throws IOException {
+    StringBuilder text = segment.join();
+    int appended = 0;
+    for (Segment child : segment.children) {
+      out.append(text, appended, child.insertAt);
+      appended = child.insertAt;
+      append(child, out);
+    }
+    out.append(text, appended, text.length());
+  }
+
+  /**
+   * Writes a node, splitting its children if there are more than the segment size.
+   * The segments of the children are started and left to be appended later.
+   *
+   * @param task  the current task
+   * @param node  the node to write
+   * @param style the layout to write
+   * @param depth the indentation level of the node
+   * @throws IOException if the buffer fails
+   */
+  private void write(Segment task, JsonNode node, JsonStyle style, int depth)
+          throws IOException {
+    int size = childCount(node);
+    StringBuilder out = task.text;
+    if (size < 0) {
+      node.write(out, style, depth);
+      return;
+    }
+    boolean object = node instanceof JsonObject;
+    JsonNode.writeStart(out, object ? '{' : '[', style, depth);
+    if (size <= segmentSize) {
+      writeChildren(task, node, style, depth, 0, size);
+    } else {
+      for (int from = 0; from < size; from += segmentSize) {
+        Segment segment =
+                new Segment(node, style, depth, from, Math.min(size, from + segmentSize));
+        segment.insertAt = out.length();
+        segment.fork();
+        task.children.add(segment);
+      }
+    }
+    JsonNode.writeEnd(out, object ? '}' : ']', style, depth);
+  }
+
+  /**
+   * Writes a range of the children of an object or array, each with its separator.
+   *
+   * @param task      the current task
+   * @param container the object or array
+   * @param style     the layout to write
+   * @param depth     the indentation level of the container
+   * @param from      the position of the first child
+   * @param to        the position after the last child
+   * @throws IOException if the buffer fails
+   */
+  private void writeChildren(Segment task, JsonNode container, JsonStyle style, int depth,
+                             int from, int to) throws IOException {
+    StringBuilder out = task.text;
+    if (container instanceof JsonObject) {
+      List<Map.Entry<String, JsonNode>> entries = ((JsonObject) container).entries();
+      for (int i = from; i < to; i++) {
+        Map.Entry<String, JsonNode> entry = entries.get(i);
+        JsonNode value = entry.getValue();
+        write(task, value, style, JsonObject.writeKey(out, i, entry.getKey(), value, style, depth));
+      }
+    } else {
+      List<JsonNode> elements = ((JsonArray) container).elements();
+      for (int i = from; i < to; i++) {
+        JsonNode.writeSeparator(out, i, style);
+        write(task, elements.get(i), style, depth + 1);
+      }
+    }
+  }
+
+  /**
+   * Returns the number of children of a node this writer can split.
+   *
+   * @param node the node
+   * @return the number of children of a JsonObject or JsonArray, -1 for any other node
+   */
+  private static int childCount(JsonNode node) {
+    if (node instanceof JsonObject) {
+      return ((JsonObject) node).entries().size();
+    }
+    if (node instanceof JsonArray) {
+      return ((JsonArray) node).elements().size();
+    }
+    return -1;
+  }
+
+  /**
+   * Writes a whole node, or a range of the children of a container, to its own buffer.
+   * The segments of its large children are kept in order, each with the position in the
+   * buffer where its text goes.
+   */
+  private final class Segment extends RecursiveTask<StringBuilder> {
+    private static final long serialVersionUID = 1L;
+
+    private final JsonNode node;
+    private final JsonStyle style;
+    private final int depth;
+    private final int from;
+    private final int to;
+    private final StringBuilder text;
+    private final List<Segment> children;
+    private int insertAt;
+
+    /**
+     * Creates a task for a range of children.
+     *
+     * @param node  the object or array, or the whole node if from is negative
+     * @param style the layout to write
+     * @param depth the indentation level of the node
+     * @param from  the position of the first child
+     * @param to    the position after the last child
+     */
+    private Segment(JsonNode node, JsonStyle style, int depth, int from, int to) {
+      this.node = node;
+      this.style = style;
+      this.depth = depth;
+      this.from = from;
+      this.to = to;
+      this.text = new StringBuilder();
+      this.children = new ArrayList<>();
+    }
+
+    @Override
+    protected StringBuilder compute() {
+      try {
+        if (from < 0) {
+          write(this, node, style, depth);
+        } else {
+          writeChildren(this, node, style, depth, from, to);
+        }
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      return text;
+    }
+  }
+}
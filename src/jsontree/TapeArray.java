@@ -0,0 +1,174 @@
+package jsontree;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A read-only view of an array stored in a JsonTape.
+ * Views hold only the tape and an index, so they are cheap to create and are not cached.
+ */
+final class TapeArray extends IJsonArray {
+  private final JsonTape tape;
+  private final int index;
+
+  /**
+   * Creates a view of the array starting at a tape index.
+   *
+   * @param tape  the tape holding the document
+   * @param index the tape index of the array start
+   */
+  TapeArray(JsonTape tape, int index) {
+    this.tape = tape;
+    this.index = index;
+  }
+
+  /**
+   * Tape views cannot be modified.
+   *
+   * @param value ignored
+   * @throws UnsupportedOperationException always
+   */
+  @Override
+  public void add(JsonNode value) {
+    throw new UnsupportedOperationException("tape nodes are read-only");
+  }
+
+  /**
+   * Counts the elements by skipping over them on the tape.
+   *
+   * @return the size of the array
+   */
+  @Override
+  public int size() {
+    int size = 0;
+    for (int i = index + 1; tape.type(i) != JsonTape.ARRAY_END; i = tape.next(i)) {
+      size++;
+    }
+    return size;
+  }
+
+  /**
+   * Returns a view of the element at a position, skipping over the elements before it.
+   * Use the iterator to read all elements in one pass.
+   *
+   * @param position the position of the element
+   * @return the element
+   * @throws IndexOutOfBoundsException if the position is negative or not less than size()
+   */
+  @Override
+  public JsonNode get(int position) {
+    if (position >= 0) {
+      int i = index + 1;
+      for (int skipped = 0; tape.type(i) != JsonTape.ARRAY_END; i = tape.next(i), skipped++) {
+        if (skipped == position) {
+          return tape.node(i);
+        }
+      }
+    }
+    throw new IndexOutOfBoundsException("no element at " + position);
+  }
+
+  /**
+   * Returns views of the elements in order, in one pass over the tape.
+   *
+   * @return an iterator over the elements
+   */
+  @Override
+  public Iterator<JsonNode> iterator() {
+    return new Iterator<JsonNode>() {
+      private int next = index + 1;
+
+      @Override
+      public boolean hasNext() {
+        return tape.type(next) != JsonTape.ARRAY_END;
+      }
+
+      @Override
+      public JsonNode next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        JsonNode element = tape.node(next);
+        next = tape.next(next);
+        return element;
+      }
+    };
+  }
+
+  /**
+   * Generates the same pretty-printed representation as the equivalent JsonArray.
+   *
+   * @return A formatted string representation of the JSON array.
+   */
+  @Override
+  public String prettyPrint() {
+    return toString(JsonStyle.PRETTY);
+  }
+
+  /**
+   * Writes the node straight from the tape.
+   *
+   * @param out   the destination
+   * @param style the layout to write
+   * @param depth the indentation level
+   * @throws IOException if the destination fails
+   */
+  @Override
+  protected void write(Appendable out, JsonStyle style, int depth) throws IOException {
+    tape.write(out, index, style, depth);
+  }
+
+  /**
+   * Copies the array into a regular, modifiable JsonArray.
+   *
+   * @return the copied array
+   */
+  JsonNode toTree() {
+    return tape.toTree(index);
+  }
+
+  /**
+   * Checks if this array is equal to another array view or JsonArray.
+   * Different fingerprints are rejected at once, otherwise the comparison follows
+   * JsonArray.equals straight from the tape, without copying anything.
+   *
+   * @param otherObject The object to compare.
+   * @return true if the arrays are equal, else false.
+   */
+  @Override
+  public boolean equals(Object otherObject) {
+    if (this == otherObject) {
+      return true;
+    }
+    if (!(otherObject instanceof JsonNode)
+            || fingerprint() != ((JsonNode) otherObject).fingerprint()) {
+      return false;
+    }
+    if (otherObject instanceof TapeArray) {
+      TapeArray that = (TapeArray) otherObject;
+      return tape.nodeEquals(index, that.tape, that.index);
+    }
+    return otherObject instanceof JsonArray && tape.nodeEquals(index, (JsonNode) otherObject);
+  }
+
+  /**
+   * Computes the hash code the equivalent JsonArray would have, without copying.
+   *
+   * @return The hash code value.
+   */
+  @Override
+  public int hashCode() {
+    return hashOf(fingerprint());
+  }
+
+  /**
+   * Computes the fingerprint from the tape, without copying.
+   *
+   * @return the fingerprint
+   */
+  @Override
+  protected long computeFingerprint() {
+    return tape.fingerprint(index);
+  }
+}
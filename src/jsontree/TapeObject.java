@@ -0,0 +1,148 @@
+package jsontree;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A read-only view of an object stored in a JsonTape.
+ * Views hold only the tape and an index, so they are cheap to create and are not cached.
+ */
+final class TapeObject extends IJsonObject {
+  private final JsonTape tape;
+  private final int index;
+
+  /**
+   * Creates a view of the object starting at a tape index.
+   *
+   * @param tape  the tape holding the document
+   * @param index the tape index of the object start
+   */
+  TapeObject(JsonTape tape, int index) {
+    this.tape = tape;
+    this.index = index;
+  }
+
+  /**
+   * Tape views cannot be modified.
+   *
+   * @param key   ignored
+   * @param value ignored
+   * @throws UnsupportedOperationException always
+   */
+  @Override
+  public void add(String key, JsonNode value) {
+    throw new UnsupportedOperationException("tape nodes are read-only");
+  }
+
+  /**
+   * Returns the value of a key by scanning the keys on the tape.
+   * If the key occurs more than once, the last value wins.
+   *
+   * @param key the key to look up
+   * @return a view of the value, or null if the object has no such key
+   */
+  @Override
+  public JsonNode get(String key) {
+    int found = -1;
+    for (int i = index + 1; tape.type(i) != JsonTape.OBJECT_END; i = tape.next(i + 1)) {
+      if (tape.textEquals(i, key)) {
+        found = i + 1;
+      }
+    }
+    return found < 0 ? null : tape.node(found);
+  }
+
+  /**
+   * Returns a read-only map of the keys and value views, filled in one pass over the tape.
+   *
+   * @return the map
+   */
+  @Override
+  public Map<String, JsonNode> asMap() {
+    Map<String, JsonNode> map = new LinkedHashMap<>();
+    for (int i = index + 1; tape.type(i) != JsonTape.OBJECT_END; i = tape.next(i + 1)) {
+      String key = tape.text(i).toString();
+      map.remove(key);
+      map.put(key, tape.node(i + 1));
+    }
+    return Collections.unmodifiableMap(map);
+  }
+
+  /**
+   * Generates the same pretty-printed representation as the equivalent JsonObject.
+   *
+   * @return A formatted string representation of the JSON object.
+   */
+  @Override
+  public String prettyPrint() {
+    return toString(JsonStyle.PRETTY);
+  }
+
+  /**
+   * Writes the node straight from the tape.
+   *
+   * @param out   the destination
+   * @param style the layout to write
+   * @param depth the indentation level
+   * @throws IOException if the destination fails
+   */
+  @Override
+  protected void write(Appendable out, JsonStyle style, int depth) throws IOException {
+    tape.write(out, index, style, depth);
+  }
+
+  /**
+   * Copies the object into a regular, modifiable JsonObject.
+   *
+   * @return the copied object
+   */
+  JsonNode toTree() {
+    return tape.toTree(index);
+  }
+
+  /**
+   * Checks if this object is equal to another object view or JsonObject.
+   * Different fingerprints are rejected at once, otherwise the comparison follows
+   * JsonObject.equals straight from the tape, without copying anything.
+   *
+   * @param otherObject The object to compare.
+   * @return true if the objects are equal, else false.
+   */
+  @Override
+  public boolean equals(Object otherObject) {
+    if (this == otherObject) {
+      return true;
+    }
+    if (!(otherObject instanceof JsonNode)
+            || fingerprint() != ((JsonNode) otherObject).fingerprint()) {
+      return false;
+    }
+    if (otherObject instanceof TapeObject) {
+      TapeObject that = (TapeObject) otherObject;
+      return tape.nodeEquals(index, that.tape, that.index);
+    }
+    return otherObject instanceof JsonObject && tape.nodeEquals(index, (JsonNode) otherObject);
+  }
+
+  /**
+   * Computes the hash code the equivalent JsonObject would have, without copying.
+   *
+   * @return The hash code value.
+   */
+  @Override
+  public int hashCode() {
+    return hashOf(fingerprint());
+  }
+
+  /**
+   * Computes the fingerprint from the tape, without copying.
+   *
+   * @return the fingerprint
+   */
+  @Override
+  protected long computeFingerprint() {
+    return tape.fingerprint(index);
+  }
+}
@@ -1,6 +1,21 @@
 package parser;
 
-import java.util.Stack;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
 
 import validator.JsonStateMachine;
 import validator.Status;
@@ -8,6 +23,8 @@ import validator.Status;
 /**
  * AbstractJsonParser is an abstract base class that implements common JSON parsing functionality.
  * Contains shared methods and fields used by both JsonValidator and JsonTreeBuilder.
+ * When stopAtEnd is set, the bulk input methods return right after the root object closes,
+ * so that the input of another document can follow once the parser is reset.
  */
 public abstract class AbstractJsonParser<T> implements JsonParser<T> {
 
@@ -18,26 +35,558 @@ public abstract class AbstractJsonParser<T> implements JsonParser<T> {
   protected static final char QUOTE = '"';
   protected static final char COLON = ':';
   protected static final char COMMA = ',';
+  protected static final long MAPPED_WINDOW_SIZE = 64L * 1024 * 1024;
+  private static final int CHECKPOINT_MAGIC = 0x4A534350;
 
-  protected Stack<Character> characterStack;
+  protected NestingStack nestingStack;
   protected boolean firstCharacter;
   protected JsonStateMachine currentState;
-  protected int flowerBraces;
-  protected String currentStatus;
+  protected Status currentStatus;
+  protected boolean stopAtEnd;
+
+  private int utf8Remaining;
+  private int utf8CodePoint;
+  private int utf8Minimum;
 
   /**
    * Initializes a new JSON validator with default values.
-   * Sets up an empty stack, initializes the state machine to state INITIALIZATION.
+   * Sets up an empty nesting stack, initializes the state machine to state INITIALIZATION.
    * Sets the current state to EMPTY.
    */
   public AbstractJsonParser() {
-    characterStack = new Stack<>();
+    nestingStack = new NestingStack();
+    currentState = JsonStateMachine.INITIALIZATION;
+    currentStatus = Status.EMPTY;
+    firstCharacter = true;
+  }
+
+  /**
+   * Returns the parser to its initial state so that it can read another document.
+   * Internal buffers are kept for reuse.
+   */
+  public void reset() {
+    nestingStack.clear();
     currentState = JsonStateMachine.INITIALIZATION;
-    currentStatus = String.valueOf(Status.EMPTY);
-    flowerBraces = 0;
+    currentStatus = Status.EMPTY;
     firstCharacter = true;
+    utf8Remaining = 0;
+  }
+
+  /**
+   * Accept a range of characters as input in a single call.
+   * Runs the state machine in a tight loop and stops at the first invalid character,
+   * leaving the status as Invalid instead of throwing. Runs of value characters are
+   * handed to handleValueChars at once.
+   *
+   * @param chars  the input characters
+   * @param offset index of the first character to process
+   * @param length number of characters to process
+   * @return the number of characters consumed, less than length if the input became invalid
+   */
+  @Override
+  public int input(char[] chars, int offset, int length) {
+    Objects.checkFromIndexSize(offset, length, chars.length);
+    if (isInvalid()) {
+      return 0;
+    }
+    int end = offset + length;
+    int i = offset;
+    CharBuffer view = null;
+    try {
+      for (; i < end; i++) {
+        char c = chars[i];
+        if (currentState == JsonStateMachine.EXPECT_VALUE && c != QUOTE) {
+          int close = i + 1;
+          while (close < end && chars[close] != QUOTE) {
+            close++;
+          }
+          if (view == null) {
+            view = CharBuffer.wrap(chars);
+          }
+          handleValueChars(view, i, close);
+          i = close - 1;
+          continue;
+        }
+        if (!canSkipWhiteSpace(c)) {
+          processStateMachine(c);
+          if (stopAtEnd && currentState == JsonStateMachine.END) {
+            return i + 1 - offset;
+          }
+        }
+      }
+    } catch (InvalidJsonException e) {
+      return i - offset;
+    }
+    return length;
+  }
+
+  /**
+   * Accept a sequence of characters as input in a single call.
+   * Stops at the first invalid character, leaving the status as Invalid instead of throwing.
+   * Runs of value characters are handed to handleValueChars at once.
+   *
+   * @param chars the input characters
+   * @return the number of characters consumed, less than its length if the input became invalid
+   */
+  @Override
+  public int input(CharSequence chars) {
+    if (isInvalid()) {
+      return 0;
+    }
+    int length = chars.length();
+    int i = 0;
+    try {
+      for (; i < length; i++) {
+        char c = chars.charAt(i);
+        if (currentState == JsonStateMachine.EXPECT_VALUE && c != QUOTE) {
+          int close = i + 1;
+          while (close < length && chars.charAt(close) != QUOTE) {
+            close++;
+          }
+          handleValueChars(chars, i, close);
+          i = close - 1;
+          continue;
+        }
+        if (!canSkipWhiteSpace(c)) {
+          processStateMachine(c);
+          if (stopAtEnd && currentState == JsonStateMachine.END) {
+            return i + 1;
+          }
+        }
+      }
+    } catch (InvalidJsonException e) {
+      return i;
+    }
+    return length;
+  }
+
+  /**
+   * Accept a range of UTF-8 encoded bytes as input without decoding them to a String first.
+   * ASCII bytes are fed to the state machine directly, multi-byte sequences are decoded
+   * and checked for well-formedness. A sequence may be split across calls.
+   *
+   * @param bytes  the UTF-8 input
+   * @param offset index of the first byte to process
+   * @param length number of bytes to process
+   * @return the number of bytes consumed, less than length if the input became invalid
+   */
+  public int input(byte[] bytes, int offset, int length) {
+    Objects.checkFromIndexSize(offset, length, bytes.length);
+    return inputUtf8(ByteBuffer.wrap(bytes), offset, offset + length);
   }
 
+  /**
+   * Accept the remaining UTF-8 encoded bytes of a buffer as input.
+   * The buffer position is advanced past the consumed bytes.
+   *
+   * @param buffer the UTF-8 input, read from its position to its limit
+   * @return the number of bytes consumed, less than remaining if the input became invalid
+   */
+  public int input(ByteBuffer buffer) {
+    int start = buffer.position();
+    int consumed = inputUtf8(buffer, start, buffer.limit());
+    buffer.position(start + consumed);
+    return consumed;
+  }
+
+  /**
+   * Accept the content of a UTF-8 encoded file as input.
+   * The file is memory-mapped one window at a time, so it is never copied onto the heap
+   * and files larger than 2 GB are supported.
+   *
+   * @param path the file to read
+   * @return the number of bytes consumed, less than the file size if the input became invalid
+   * @throws IOException if the file cannot be opened or mapped
+   */
+  public long input(Path path) throws IOException {
+    return input(path, 0);
+  }
+
+  /**
+   * Accept the content of a UTF-8 encoded file from a byte offset on as input.
+   * Used to continue reading a file after restoring a checkpoint taken at that offset.
+   * A UTF-8 sequence left unfinished at the end of the file makes the input invalid.
+   *
+   * @param path   the file to read
+   * @param offset index of the first byte to read
+   * @return the offset reached, less than the file size if the input became invalid
+   * @throws IOException if the file cannot be opened or mapped
+   */
+  public long input(Path path, long offset) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      long size = channel.size();
+      long position = offset;
+      while (position < size) {
+        long window = Math.min(MAPPED_WINDOW_SIZE, size - position);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, window);
+        int consumed = input(buffer);
+        position += consumed;
+        if (consumed < window) {
+          break;
+        }
+      }
+      if (position == size && utf8Remaining > 0 && !isInvalid()) {
+        try {
+          throwInvalidJson("truncated UTF-8 sequence");
+        } catch (InvalidJsonException e) {
+          return position;
+        }
+      }
+      return position;
+    }
+  }
+
+  /**
+   * Captures the complete parser state in a compact byte form.
+   * A parser of the same class restored from it continues as if it had read the same input.
+   * The offset is stored with the state so that the caller knows where to resume reading.
+   *
+   * @param offset the position in the input up to which the parser has read
+   * @return the checkpoint
+   */
+  public byte[] checkpoint(long offset) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      out.writeInt(CHECKPOINT_MAGIC);
+      out.writeUTF(getClass().getName());
+      out.writeLong(offset);
+      out.writeByte(currentState.ordinal());
+      out.writeByte(currentStatus.ordinal());
+      out.writeBoolean(firstCharacter);
+      out.writeByte(utf8Remaining);
+      out.writeInt(utf8CodePoint);
+      out.writeInt(utf8Minimum);
+      nestingStack.writeTo(out);
+      writeCheckpoint(out);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return bytes.toByteArray();
+  }
+
+  /**
+   * Replaces the parser state with the state captured by checkpoint.
+   * The whole checkpoint is read before any state is replaced, so a parser is left unchanged
+   * if the checkpoint turns out to be corrupt.
+   *
+   * @param checkpoint the bytes returned by checkpoint on a parser of the same class
+   * @return the offset in the input to continue reading from
+   * @throws IllegalArgumentException if the bytes are not a checkpoint of this parser class
+   */
+  public long restore(byte[] checkpoint) {
+    try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(checkpoint))) {
+      if (in.readInt() != CHECKPOINT_MAGIC || !getClass().getName().equals(in.readUTF())) {
+        throw new IllegalArgumentException("not a checkpoint of " + getClass().getName());
+      }
+      long offset = in.readLong();
+      JsonStateMachine state = JsonStateMachine.values()[in.readByte()];
+      Status status = Status.values()[in.readByte()];
+      boolean first = in.readBoolean();
+      int remaining = in.readByte();
+      int codePoint = in.readInt();
+      int minimum = in.readInt();
+      NestingStack stack = new NestingStack();
+      stack.readFrom(in);
+      Runnable subclassState = readCheckpoint(in);
+
+      currentState = state;
+      currentStatus = status;
+      firstCharacter = first;
+      utf8Remaining = remaining;
+      utf8CodePoint = codePoint;
+      utf8Minimum = minimum;
+      nestingStack = stack;
+      subclassState.run();
+      return offset;
+    } catch (IOException | IndexOutOfBoundsException | NegativeArraySizeException e) {
+      throw new IllegalArgumentException("corrupt checkpoint", e);
+    }
+  }
+
+  /**
+   * Accept indexed UTF-8 input, visiting only its structural positions.
+   * Whitespace between tokens is never looked at, value bodies are handed to
+   * handleValueBytes as a whole and only key bodies are checked character by character.
+   * Falls back to the byte engine if the input is not pure ASCII or the parser is
+   * inside a key, a value or a multi-byte sequence. The buffer position is not changed.
+   *
+   * @param index the structural index of the input
+   * @return the number of bytes consumed, less than the indexed range if the input became invalid
+   */
+  public int input(StructuralIndex index) {
+    ByteBuffer buffer = index.buffer();
+    int from = index.from();
+    int to = index.to();
+    if (!index.isAsciiOnly() || utf8Remaining > 0
+            || currentState.isKeyProcessing() || currentState.isValueProcessing()) {
+      return inputUtf8(buffer, from, to);
+    }
+    if (isInvalid()) {
+      return 0;
+    }
+    int[] positions = index.positions();
+    int size = index.size();
+    int position = from;
+    try {
+      for (int k = 0; k < size; k++) {
+        position = positions[k];
+        char c = (char) buffer.get(position);
+        if (canSkipWhiteSpace(c)) {
+          continue;
+        }
+        processStateMachine(c);
+        if (stopAtEnd && currentState == JsonStateMachine.END) {
+          return position + 1 - from;
+        }
+        int close = k + 1 < size ? positions[k + 1] : to;
+        if (currentState.isValueProcessing()) {
+          handleValueBytes(buffer, position + 1, close);
+        } else if (currentState.isKeyProcessing()) {
+          for (position++; position < close; position++) {
+            processStateMachine((char) buffer.get(position));
+          }
+        }
+      }
+    } catch (InvalidJsonException e) {
+      return position - from;
+    }
+    return to - from;
+  }
+
+  /**
+   * Runs the state machine over the bytes between from and to.
+   * Inside a value, a run of plain ASCII characters is found eight bytes at a time and
+   * handed to handleValueBytes at once. Runs of skippable whitespace are jumped over
+   * the same way.
+   *
+   * @param buffer the UTF-8 input
+   * @param from   index of the first byte
+   * @param to     index after the last byte
+   * @return the number of bytes consumed
+   */
+  private int inputUtf8(ByteBuffer buffer, int from, int to) {
+    if (isInvalid()) {
+      return 0;
+    }
+    int i = from;
+    try {
+      while (i < to) {
+        byte b = buffer.get(i);
+        if (b < 0 || utf8Remaining > 0) {
+          decodeUtf8(b);
+        } else if (currentState == JsonStateMachine.EXPECT_VALUE && b != QUOTE) {
+          int end = SwarScanner.skipStringBody(buffer, i + 1, to);
+          handleValueBytes(buffer, i, end);
+          i = end;
+          continue;
+        } else if (canSkipWhiteSpace((char) b)) {
+          i = SwarScanner.skipWhitespace(buffer, i + 1, to);
+          continue;
+        } else {
+          processStateMachine((char) b);
+          if (stopAtEnd && currentState == JsonStateMachine.END) {
+            return i + 1 - from;
+          }
+        }
+        i++;
+      }
+    } catch (InvalidJsonException e) {
+      return i - from;
+    }
+    return to - from;
+  }
+
+  /**
+   * Accumulates one byte of a multi-byte UTF-8 sequence.
+   * Once the sequence is complete the code point is fed to the state machine.
+   * Overlong forms, surrogates and stray continuation bytes are rejected.
+   *
+   * @param b the current byte
+   * @throws InvalidJsonException if the byte is not valid UTF-8 here
+   */
+  private void decodeUtf8(byte b) throws InvalidJsonException {
+    if (utf8Remaining == 0) {
+      int lead = b & 0xFF;
+      if (lead >= 0xC2 && lead <= 0xDF) {
+        startUtf8Sequence(1, lead & 0x1F, 0x80);
+      } else if (lead >= 0xE0 && lead <= 0xEF) {
+        startUtf8Sequence(2, lead & 0x0F, 0x800);
+      } else if (lead >= 0xF0 && lead <= 0xF4) {
+        startUtf8Sequence(3, lead & 0x07, 0x10000);
+      } else {
+        throwInvalidJson("malformed UTF-8 byte");
+      }
+      return;
+    }
+    if ((b & 0xC0) != 0x80) {
+      throwInvalidJson("malformed UTF-8 byte");
+    }
+    utf8CodePoint = (utf8CodePoint << 6) | (b & 0x3F);
+    utf8Remaining--;
+    if (utf8Remaining == 0) {
+      int codePoint = utf8CodePoint;
+      if (codePoint < utf8Minimum || codePoint > Character.MAX_CODE_POINT
+              || (codePoint >= Character.MIN_SURROGATE && codePoint <= Character.MAX_SURROGATE)) {
+        throwInvalidJson("malformed UTF-8 sequence");
+      }
+      inputCodePoint(codePoint);
+      if (currentState == JsonStateMachine.END) {
+        currentStatus = Status.VALID;
+      }
+    }
+  }
+
+  /**
+   * Records the lead byte of a multi-byte UTF-8 sequence.
+   * After the end of the document the status is Incomplete until the sequence is complete,
+   * as the document is not valid with an unfinished character after it.
+   *
+   * @param remaining number of continuation bytes expected
+   * @param bits      payload bits of the lead byte
+   * @param minimum   smallest code point allowed for this length
+   */
+  private void startUtf8Sequence(int remaining, int bits, int minimum) {
+    utf8Remaining = remaining;
+    utf8CodePoint = bits;
+    utf8Minimum = minimum;
+    if (currentState == JsonStateMachine.END) {
+      currentStatus = Status.INCOMPLETE;
+    }
+  }
+
+  /**
+   * Feeds a decoded code point to the state machine as the chars a String would hold.
+   *
+   * @param codePoint the decoded code point
+   * @throws InvalidJsonException if a resulting char is invalid for the current state
+   */
+  private void inputCodePoint(int codePoint) throws InvalidJsonException {
+    if (Character.isBmpCodePoint(codePoint)) {
+      char c = (char) codePoint;
+      if (!canSkipWhiteSpace(c)) {
+        processStateMachine(c);
+      }
+    } else {
+      processStateMachine(Character.highSurrogate(codePoint));
+      processStateMachine(Character.lowSurrogate(codePoint));
+    }
+  }
+
+  /**
+   * Handles a run of ASCII bytes inside a value, none of which is a quote.
+   * By default every byte goes through the state machine, subclasses that
+   * do not need the value characters can skip them.
+   *
+   * @param buffer the UTF-8 input
+   * @param from   index of the first byte of the run
+   * @param to     index after the last byte of the run
+   * @throws InvalidJsonException if a character is invalid for the current state
+   */
+  protected void handleValueBytes(ByteBuffer buffer, int from, int to)
+          throws InvalidJsonException {
+    for (int i = from; i < to; i++) {
+      processStateMachine((char) buffer.get(i));
+    }
+  }
+
+  /**
+   * Handles a run of value characters that contains no quote, so the value stays open.
+   * The default feeds every character to the state machine. The characters stay valid
+   * as long as the caller does not modify its input.
+   *
+   * @param chars the input characters
+   * @param from  index of the first character of the run
+   * @param to    index after the last character of the run
+   * @throws InvalidJsonException if a character is invalid for the current state
+   */
+  protected void handleValueChars(CharSequence chars, int from, int to)
+          throws InvalidJsonException {
+    for (int i = from; i < to; i++) {
+      processStateMachine(chars.charAt(i));
+    }
+  }
+
+  /**
+   * Writes the state a subclass keeps in addition to the shared fields.
+   * The default writes nothing.
+   *
+   * @param out the checkpoint being written
+   * @throws IOException if writing fails
+   */
+  protected void writeCheckpoint(DataOutput out) throws IOException {
+  }
+
+  /**
+   * Reads the state written by writeCheckpoint without changing the parser.
+   * The returned action installs it, and is run only once the whole checkpoint has been read
+   * and the shared fields have been restored. The default reads nothing.
+   *
+   * @param in the checkpoint being read
+   * @return the action replacing the subclass state with the state read
+   * @throws IOException if reading fails or the data is corrupt
+   */
+  protected Runnable readCheckpoint(DataInput in) throws IOException {
+    return () -> { };
+  }
+
+  /**
+   * Reads the length written before a run of items in a checkpoint, and checks it against the
+   * bytes left so that a corrupt length fails before anything is allocated for it.
+   *
+   * @param in       the checkpoint being read
+   * @param itemSize the number of bytes each item takes in the checkpoint
+   * @return the length
+   * @throws IOException if reading fails or the checkpoint is too short for the length
+   */
+  protected static int readLength(DataInput in, int itemSize) throws IOException {
+    int length = in.readInt();
+    if (length < 0) {
+      throw new IOException("negative length " + length);
+    }
+    checkRemaining(in, (long) length * itemSize);
+    return length;
+  }
+
+  /**
+   * Checks that a checkpoint still holds at least the given number of bytes.
+   * Only checkpoints read from a stream can be checked, others always pass.
+   *
+   * @param in    the checkpoint being read
+   * @param bytes the number of bytes about to be read
+   * @throws IOException if fewer bytes are left
+   */
+  static void checkRemaining(DataInput in, long bytes) throws IOException {
+    if (in instanceof InputStream && bytes > ((InputStream) in).available()) {
+      throw new IOException("checkpoint too short for " + bytes + " bytes");
+    }
+  }
+
+  /**
+   * Returns the status of the input provided so far.
+   *
+   * @return the current status
+   */
+  public Status status() {
+    return currentStatus;
+  }
+
+  /**
+   * Checks whether the parser has already seen invalid input.
+   *
+   * @return true if the current status is Invalid
+   */
+  protected boolean isInvalid() {
+    return currentStatus == Status.INVALID;
+  }
+
+  /**
+   * Processes the current character based on the parser's current state.
+   *
+   * @param c The character to be processed
+   * @throws InvalidJsonException if the character is invalid for the current state
+   */
+  protected abstract void processStateMachine(char c) throws InvalidJsonException;
+
   /**
    * Handles comma characters, determining the next expected state in the state machine.
    *
@@ -45,7 +594,7 @@ public abstract class AbstractJsonParser<T> implements JsonParser<T> {
    * @throws InvalidJsonException if the comma is invalid
    */
   protected void handleComma(char c) throws InvalidJsonException {
-    currentState = (characterStack.peek() != OPEN_BRACKET)
+    currentState = !nestingStack.isArrayOnTop()
             ? JsonStateMachine.EXPECT_KEY
             : JsonStateMachine.EXPECT_VALUE_OR_NESTED_OBJECT;
   }
@@ -0,0 +1,52 @@
+package parser;
+
+/**
+ * Receives the structure of a document from a JsonEventParser as it is read.
+ * Every callback has an empty default implementation, so a handler only overrides the
+ * events it needs. Keys and values are passed as a buffer that the parser reuses, it is
+ * only valid during the callback and must be copied with toString() to be kept.
+ * Events are reported as soon as they are read, so a document that turns out to be invalid
+ * may already have produced some events.
+ */
+public interface JsonEventHandler {
+
+  /**
+   * Called when an object is opened, including the root object.
+   */
+  default void startObject() {
+  }
+
+  /**
+   * Called when a key of an object has been read completely.
+   *
+   * @param key the characters of the key
+   */
+  default void key(CharSequence key) {
+  }
+
+  /**
+   * Called when a string value has been read completely.
+   *
+   * @param value the characters of the value
+   */
+  default void stringValue(CharSequence value) {
+  }
+
+  /**
+   * Called when an array is opened.
+   */
+  default void startArray() {
+  }
+
+  /**
+   * Called when an array is closed.
+   */
+  default void endArray() {
+  }
+
+  /**
+   * Called when an object is closed, including the root object.
+   */
+  default void endObject() {
+  }
+}
@@ -0,0 +1,357 @@
+package parser;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import validator.JsonStateMachine;
+import validator.Status;
+
+/**
+ * JsonEventParser is the implementation of the JsonParser interface that builds no tree.
+ * Follows the same grammar as JsonTreeBuilder, but reports every object, array, key and value
+ * to a JsonEventHandler as it is read. Only one buffer for the key or value being read is kept,
+ * so memory use does not depend on the size of the document.
+ */
+public class JsonEventParser extends AbstractJsonParser<String> {
+
+  private final JsonEventHandler handler;
+  private final StringBuilder currentText;
+
+  /**
+   * Initializes a new event parser in the initial state.
+   *
+   * @param handler receives the events of the document
+   */
+  public JsonEventParser(JsonEventHandler handler) {
+    this.handler = handler;
+    this.currentText = new StringBuilder();
+  }
+
+  /**
+   * Accept a single character as input, and return the new parser object as a result.
+   * Ignores all the whitespaces if the current state is not in key and value.
+   * Sets state to Invalid & throw Exception if unexpected char appears in the current state.
+   * Once in Invalid state, processing stops as it can't become valid again.
+   *
+   * @param c the input character
+   * @return the parser after handling the provided character
+   * @throws InvalidJsonException if the input causes the JSON to be invalid
+   */
+  @Override
+  public JsonParser<String> input(char c) throws InvalidJsonException {
+    if (isInvalid() || canSkipWhiteSpace(c)) {
+      return this;
+    }
+    processStateMachine(c);
+    return this;
+  }
+
+  /**
+   * Provide the output of the parser, given all the inputs it has been provided so far.
+   * The document itself is only reported through the handler.
+   *
+   * @return the current status, e.g. "Status:Valid"
+   */
+  @Override
+  public String output() {
+    return currentStatus.toString();
+  }
+
+  /**
+   * Returns the parser to its initial state so that it can read another document.
+   * The handler is kept.
+   */
+  @Override
+  public void reset() {
+    super.reset();
+    currentText.setLength(0);
+  }
+
+  /**
+   * Writes the key or value being read.
+   *
+   * @param out the checkpoint being written
+   * @throws IOException if writing fails
+   */
+  @Override
+  protected void writeCheckpoint(DataOutput out) throws IOException {
+    out.writeInt(currentText.length());
+    out.writeChars(currentText.toString());
+  }
+
+  /**
+   * Reads the key or value being read.
+   *
+   * @param in the checkpoint being read
+   * @return the action replacing the current text
+   * @throws IOException if reading fails
+   */
+  @Override
+  protected Runnable readCheckpoint(DataInput in) throws IOException {
+    char[] text = new char[readLength(in, Character.BYTES)];
+    for (int i = 0; i < text.length; i++) {
+      text[i] = in.readChar();
+    }
+    return () -> {
+      currentText.setLength(0);
+      currentText.append(text);
+    };
+  }
+
+  /**
+   * Appends a run of value characters to the current value.
+   *
+   * @param chars the input characters
+   * @param from  index of the first character of the run
+   * @param to    index after the last character of the run
+   */
+  @Override
+  protected void handleValueChars(CharSequence chars, int from, int to) {
+    currentText.append(chars, from, to);
+  }
+
+  /**
+   * Appends a run of ASCII value bytes read from UTF-8 input to the current value.
+   * None of the bytes is a quote, so the value stays open.
+   *
+   * @param buffer the UTF-8 input
+   * @param from   index of the first byte of the run
+   * @param to     index after the last byte of the run
+   */
+  @Override
+  protected void handleValueBytes(ByteBuffer buffer, int from, int to) {
+    currentText.ensureCapacity(currentText.length() + to - from);
+    for (int i = from; i < to; i++) {
+      currentText.append((char) buffer.get(i));
+    }
+  }
+
+  /**
+   * Processes the current character based on the parser's current state.
+   * This method gives the input character to the appropriate current state
+   * according to the current state of the JSON parsing process. If there's no
+   * matching state with respect to the current character then it throws an
+   * invalid json exception by default.
+   *
+   * @param c The character to be processed
+   * @throws InvalidJsonException if the character is invalid for the current state
+   */
+  @Override
+  protected void processStateMachine(char c) throws InvalidJsonException {
+    switch (currentState) {
+      case INITIALIZATION:
+        handleInitialization(c);
+        break;
+      case EXPECT_KEY:
+        handleExpectKey(c);
+        break;
+      case STARTING_KEY:
+        handleKey(c);
+        break;
+      case END_KEY:
+        handleKeyEnding(c);
+        break;
+      case EXPECT_VALUE_OR_NESTED_OBJECT:
+        handleIntermediateStage(c);
+        break;
+      case EXPECT_VALUE:
+        handleValue(c);
+        break;
+      case FINAL_STAGE:
+        handleFinalStage(c);
+        break;
+      default:
+        throwInvalidJson("error in state initialization");
+        break;
+    }
+  }
+
+  /**
+   * Throws an InvalidJsonException with a custom message.
+   * Updates the status to INVALID.
+   * Used by helper methods in the class as a single point of contact to throw exception.
+   *
+   * @throws InvalidJsonException always throws an invalid json exception
+   */
+  protected void throwInvalidJson(String message) throws InvalidJsonException {
+    currentStatus = Status.INVALID;
+    throw new InvalidJsonException("Error: " + message + "State :" + currentState.getDescription());
+  }
+
+  /**
+   * Handles the initialization state, expecting an opening curly brace.
+   * Reports the start of the root object.
+   *
+   * @param c The current character
+   * @throws InvalidJsonException if the character is not '{'
+   */
+  private void handleInitialization(char c) throws InvalidJsonException {
+    if (c != OPEN_BRACE) {
+      throwInvalidJson("json should start with {");
+    }
+    nestingStack.pushObject();
+    currentState = JsonStateMachine.EXPECT_KEY;
+    currentStatus = Status.INCOMPLETE;
+    handler.startObject();
+  }
+
+  /**
+   * Handles the state where a key is expected, requiring a quote character.
+   *
+   * @param c The current character
+   * @throws InvalidJsonException if the character is not '"'
+   */
+  private void handleExpectKey(char c) throws InvalidJsonException {
+    if (c != QUOTE) {
+      throwInvalidJson("error in key initialization");
+    }
+    currentText.setLength(0);
+    currentState = JsonStateMachine.STARTING_KEY;
+  }
+
+  /**
+   * Processes characters within a key string.
+   * The first character must be a letter and the others letters or digits.
+   * Reports the key once its closing quote is read.
+   *
+   * @param c The current character
+   * @throws InvalidJsonException if the character is invalid for a key
+   */
+  private void handleKey(char c) throws InvalidJsonException {
+    if (firstCharacter) {
+      if (!Character.isLetter(c)) {
+        throwInvalidJson("json first char should be letter");
+      }
+      currentText.append(c);
+      firstCharacter = false;
+      return;
+    }
+    if (c == QUOTE) {
+      currentState = JsonStateMachine.END_KEY;
+      firstCharacter = true;
+      handler.key(currentText);
+      return;
+    }
+    if (!Character.isLetterOrDigit(c)) {
+      throwInvalidJson("only letters & digits are allowed");
+    }
+    currentText.append(c);
+  }
+
+  /**
+   * Handles the state between key and value, expecting a colon.
+   *
+   * @param c The current character
+   * @throws InvalidJsonException if the character is not ':'
+   */
+  private void handleKeyEnding(char c) throws InvalidJsonException {
+    if (c != COLON) {
+      throwInvalidJson("key should be followed by :");
+    }
+    currentState = JsonStateMachine.EXPECT_VALUE_OR_NESTED_OBJECT;
+  }
+
+  /**
+   * After a key ends, the value can be either a string, or an array or an object.
+   * Reports the start of nested objects and arrays.
+   *
+   * @param c The current character
+   * @throws InvalidJsonException if the character is invalid
+   */
+  private void handleIntermediateStage(char c) throws InvalidJsonException {
+    switch (c) {
+      case OPEN_BRACE:
+        nestingStack.pushObject();
+        currentState = JsonStateMachine.EXPECT_KEY;
+        handler.startObject();
+        break;
+      case QUOTE:
+        currentText.setLength(0);
+        currentState = JsonStateMachine.EXPECT_VALUE;
+        break;
+      case OPEN_BRACKET:
+        nestingStack.pushArray();
+        currentState = JsonStateMachine.EXPECT_VALUE_OR_NESTED_OBJECT;
+        handler.startArray();
+        break;
+      case CLOSE_BRACKET:
+        handleFinalStage(c);
+        break;
+      default:
+        throwInvalidJson("Unexpected char");
+    }
+  }
+
+  /**
+   * Handles characters within a value string.
+   * Since the value can contain any characters, no validation is applied.
+   * Reports the value once its closing quote is read.
+   *
+   * @param c The current character
+   */
+  private void handleValue(char c) {
+    if (c != QUOTE) {
+      currentText.append(c);
+      return;
+    }
+    currentState = JsonStateMachine.FINAL_STAGE;
+    handler.stringValue(currentText);
+  }
+
+  /**
+   * Processes characters after a value, a closing brace, or a comma.
+   *
+   * @param c The current character
+   * @throws InvalidJsonException if the character is invalid
+   */
+  private void handleFinalStage(char c) throws InvalidJsonException {
+    switch (c) {
+      case CLOSE_BRACE:
+        handleFlowerClosing();
+        break;
+      case COMMA:
+        handleComma(c);
+        break;
+      case CLOSE_BRACKET:
+        handleBracketClosing();
+        break;
+      default:
+        throwInvalidJson("json or array can end in only } or ]");
+    }
+  }
+
+  /**
+   * Processes a closing curly brace and reports the end of the object.
+   *
+   * @throws InvalidJsonException if no object is open
+   */
+  private void handleFlowerClosing() throws InvalidJsonException {
+    if (!nestingStack.isObjectOnTop()) {
+      throwInvalidJson("error in closing json with }");
+    }
+    nestingStack.pop();
+    if (nestingStack.isEmpty()) {
+      currentStatus = Status.VALID;
+      currentState = JsonStateMachine.END;
+    } else {
+      currentState = JsonStateMachine.FINAL_STAGE;
+    }
+    handler.endObject();
+  }
+
+  /**
+   * Processes a closing square bracket and reports the end of the array.
+   *
+   * @throws InvalidJsonException if no array is open
+   */
+  private void handleBracketClosing() throws InvalidJsonException {
+    if (!nestingStack.isArrayOnTop()) {
+      throwInvalidJson("error in closing array with ]");
+    }
+    nestingStack.pop();
+    currentState = JsonStateMachine.FINAL_STAGE;
+    handler.endArray();
+  }
+}
@@ -0,0 +1,228 @@
+package parser;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+import validator.JsonStateMachine;
+import validator.Status;
+
+/**
+ * Reads a stream of UTF-8 JSON documents, one per line (JSON Lines) or several on a line,
+ * with a single parser. Every document is reported as a JsonRecord with its status, byte offset
+ * and length. The parser is reset between documents, so it keeps its buffers for the whole
+ * stream. A newline always ends a document: one that is still open there is reported as
+ * invalid up to the newline. So concatenated documents must each fit on one line, and a
+ * pretty-printed document is reported as invalid records. After an invalid document the rest
+ * of its line is skipped and reading resumes on the next line. Lines holding only whitespace
+ * are skipped. Documents may be split arbitrarily across input calls.
+ * The parser only stops at the end of each document while it reads for this class, so it can
+ * still be used on its own afterwards.
+ *
+ * @param <T> the output type of the parser
+ */
+public class JsonLinesParser<T> {
+  private static final byte NEWLINE = '\n';
+
+  private final AbstractJsonParser<T> parser;
+  private final Consumer<? super JsonRecord<T>> handler;
+  private long position;
+  private long recordStart;
+  private boolean inRecord;
+  private boolean resyncing;
+  private T failedOutput;
+
+  /**
+   * Creates a parser for a stream of documents.
+   *
+   * @param parser  reads the documents, it is reset before the first one
+   * @param handler receives a record for every document
+   */
+  public JsonLinesParser(AbstractJsonParser<T> parser, Consumer<? super JsonRecord<T>> handler) {
+    this.parser = Objects.requireNonNull(parser);
+    this.handler = Objects.requireNonNull(handler);
+    parser.reset();
+  }
+
+  /**
+   * Accept a range of UTF-8 encoded bytes as the next part of the stream.
+   *
+   * @param bytes  the UTF-8 input
+   * @param offset index of the first byte to process
+   * @param length number of bytes to process
+   */
+  public void input(byte[] bytes, int offset, int length) {
+    Objects.checkFromIndexSize(offset, length, bytes.length);
+    ByteBuffer buffer = ByteBuffer.wrap(bytes, offset, length);
+    input(buffer);
+  }
+
+  /**
+   * Accept the remaining UTF-8 encoded bytes of a buffer as the next part of the stream.
+   * The buffer position is advanced to its limit.
+   *
+   * @param buffer the UTF-8 input, read from its position to its limit
+   */
+  public void input(ByteBuffer buffer) {
+    boolean stopAtEnd = parser.stopAtEnd;
+    parser.stopAtEnd = true;
+    try {
+      readRecords(buffer);
+    } finally {
+      parser.stopAtEnd = stopAtEnd;
+    }
+  }
+
+  /**
+   * Feeds the parser one line at a time and reports every document that ends.
+   *
+   * @param buffer the UTF-8 input, read from its position to its limit
+   */
+  private void readRecords(ByteBuffer buffer) {
+    int start = buffer.position();
+    int end = buffer.limit();
+    int i = start;
+    while (i < end) {
+      if (resyncing) {
+        i = skipLine(buffer, i, end, start);
+        continue;
+      }
+      if (!inRecord) {
+        i = skipWhitespace(buffer, i, end);
+        if (i == end) {
+          break;
+        }
+        inRecord = true;
+        recordStart = position + i - start;
+      }
+      int lineEnd = SwarScanner.findNewline(buffer, i, end);
+      buffer.limit(lineEnd).position(i);
+      i += parser.input(buffer);
+      buffer.limit(end);
+      if (parser.status() == Status.INVALID) {
+        failedOutput = parser.output();
+        resyncing = true;
+        inRecord = false;
+      } else if (parser.currentState == JsonStateMachine.END) {
+        report(parser.status(), position + i - start, parser.output());
+      } else if (i < end) {
+        endLine(position + i - start);
+        i++;
+      }
+    }
+    buffer.position(end);
+    position += end - start;
+  }
+
+  /**
+   * Reads a complete JSON Lines file, memory-mapped one window at a time, and ends the stream.
+   *
+   * @param path the file to read
+   * @throws IOException if the file cannot be opened or mapped
+   */
+  public void input(Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      long size = channel.size();
+      for (long offset = 0; offset < size; offset += AbstractJsonParser.MAPPED_WINDOW_SIZE) {
+        long window = Math.min(AbstractJsonParser.MAPPED_WINDOW_SIZE, size - offset);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, offset, window);
+        input(buffer);
+      }
+    }
+    finish();
+  }
+
+  /**
+   * Ends the stream. A document that is still open is reported as Incomplete and an invalid
+   * document whose line has not ended yet is reported as Invalid.
+   * Afterwards a new stream can be read.
+   */
+  public void finish() {
+    if (resyncing) {
+      resyncing = false;
+      report(Status.INVALID, position, failedOutput);
+    } else if (inRecord && parser.status() != Status.EMPTY) {
+      report(parser.status(), position, parser.output());
+    } else {
+      inRecord = false;
+      parser.reset();
+    }
+    position = 0;
+  }
+
+  /**
+   * Skips the rest of the line of an invalid document.
+   * Once the newline is found the document is reported.
+   *
+   * @param buffer the input
+   * @param from   index of the first byte to look at
+   * @param end    index after the last byte of the input
+   * @param start  index of the byte at the current stream position
+   * @return index after the newline, or end if the line continues
+   */
+  private int skipLine(ByteBuffer buffer, int from, int end, int start) {
+    for (int i = from; i < end; i++) {
+      if (buffer.get(i) == NEWLINE) {
+        resyncing = false;
+        report(Status.INVALID, position + i - start, failedOutput);
+        return i + 1;
+      }
+    }
+    return end;
+  }
+
+  /**
+   * Skips the whitespace before a document, with the same ASCII characters the parser skips.
+   * Whitespace outside ASCII is left to the parser.
+   *
+   * @param buffer the input
+   * @param from   index of the first byte to look at
+   * @param end    index after the last byte of the input
+   * @return index of the first byte that is not skipped, or end if there is none
+   */
+  private static int skipWhitespace(ByteBuffer buffer, int from, int end) {
+    int i = SwarScanner.skipWhitespace(buffer, from, end);
+    while (i < end && buffer.get(i) >= 0 && Character.isWhitespace((char) buffer.get(i))) {
+      i = SwarScanner.skipWhitespace(buffer, i + 1, end);
+    }
+    return i;
+  }
+
+  /**
+   * Ends the line of a document that is still open. The document is reported as invalid,
+   * unless the parser has only seen whitespace so far.
+   *
+   * @param end stream offset of the newline
+   */
+  private void endLine(long end) {
+    if (parser.status() == Status.EMPTY) {
+      inRecord = false;
+      parser.reset();
+      return;
+    }
+    try {
+      parser.throwInvalidJson("document not finished at end of line");
+    } catch (InvalidJsonException e) {
+      report(Status.INVALID, end, parser.output());
+    }
+  }
+
+  /**
+   * Reports the current document and prepares the parser for the next one.
+   *
+   * @param status the status of the document
+   * @param end    stream offset after the last byte of the document
+   * @param output the output of the parser for the document
+   */
+  private void report(Status status, long end, T output) {
+    handler.accept(new JsonRecord<>(status, recordStart, end - recordStart, output));
+    failedOutput = null;
+    inRecord = false;
+    parser.reset();
+  }
+}
@@ -1,8 +1,10 @@
 package parser;
 
+import java.util.Objects;
+
 /**
  * This interface represents a simple JSON parser that accepts input one
- * character at a time.
+ * character at a time, or a range of characters at once.
  */
 public interface JsonParser<T> {
   /**
@@ -15,6 +17,48 @@ public interface JsonParser<T> {
    */
   JsonParser input(char c) throws InvalidJsonException;
 
+  /**
+   * Accept a range of characters as input, stopping at the first character
+   * that makes the JSON invalid. Unlike {@link #input(char)} no exception is
+   * thrown, the invalid status is reported through {@link #output()}.
+   *
+   * @param chars  the input characters
+   * @param offset index of the first character to process
+   * @param length number of characters to process
+   * @return the number of characters consumed, less than length if the input became invalid
+   * @throws IndexOutOfBoundsException if the range is outside the array
+   */
+  default int input(char[] chars, int offset, int length) {
+    Objects.checkFromIndexSize(offset, length, chars.length);
+    for (int i = 0; i < length; i++) {
+      try {
+        input(chars[offset + i]);
+      } catch (InvalidJsonException e) {
+        return i;
+      }
+    }
+    return length;
+  }
+
+  /**
+   * Accept a sequence of characters as input, stopping at the first character
+   * that makes the JSON invalid.
+   *
+   * @param chars the input characters
+   * @return the number of characters consumed, less than its length if the input became invalid
+   */
+  default int input(CharSequence chars) {
+    int length = chars.length();
+    for (int i = 0; i < length; i++) {
+      try {
+        input(chars.charAt(i));
+      } catch (InvalidJsonException e) {
+        return i;
+      }
+    }
+    return length;
+  }
+
   /**
    * Provide the output of the parser, given all the inputs it has been provided
    * so far. The content and format of this output is defined by individual
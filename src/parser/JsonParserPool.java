@@ -0,0 +1,65 @@
+package parser;
+
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Supplier;
+
+/**
+ * A bounded pool of parsers that can be shared between threads.
+ * Borrowing never blocks: an idle parser is reused when there is one, otherwise a new one is
+ * created. Released parsers are reset and kept until the pool is full, after which they are
+ * left to the garbage collector. The pool is lock-based rather than synchronized, so virtual
+ * threads using it are never pinned to their carrier thread.
+ *
+ * @param <P> the type of the pooled parsers
+ */
+public final class JsonParserPool<P extends AbstractJsonParser<?>> {
+  private final Supplier<? extends P> factory;
+  private final BlockingQueue<P> idle;
+
+  /**
+   * Creates an empty pool.
+   *
+   * @param factory  creates a parser when no idle one is available
+   * @param capacity the maximum number of idle parsers to keep
+   * @throws IllegalArgumentException if capacity is not positive
+   */
+  public JsonParserPool(Supplier<? extends P> factory, int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("capacity must be positive");
+    }
+    this.factory = Objects.requireNonNull(factory);
+    this.idle = new ArrayBlockingQueue<>(capacity);
+  }
+
+  /**
+   * Takes a parser in its initial state out of the pool.
+   *
+   * @return an idle parser, or a new one if the pool is empty
+   */
+  public P borrow() {
+    P parser = idle.poll();
+    return parser != null ? parser : factory.get();
+  }
+
+  /**
+   * Resets a parser and returns it to the pool.
+   * The parser must not be used by the caller afterwards.
+   *
+   * @param parser the parser obtained from borrow
+   */
+  public void release(P parser) {
+    parser.reset();
+    idle.offer(parser);
+  }
+
+  /**
+   * Returns the number of idle parsers in the pool.
+   *
+   * @return the number of parsers that borrow can reuse
+   */
+  public int idleCount() {
+    return idle.size();
+  }
+}
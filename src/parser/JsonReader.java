@@ -0,0 +1,451 @@
+package parser;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+import validator.JsonStateMachine;
+import validator.Status;
+
+/**
+ * A pull parser that reads one token at a time from a Reader.
+ * Follows the same grammar and reports the same errors as JsonValidator, but the caller asks
+ * for the next token instead of pushing characters. Input is read into a refillable buffer and
+ * scanned in place, keys and values are copied out of it in runs.
+ * skipChildren passes over a whole object or array without copying any key or value.
+ */
+public class JsonReader implements Closeable {
+  private static final int DEFAULT_BUFFER_SIZE = 8192;
+
+  private final Reader reader;
+  private final char[] buffer;
+  private int position;
+  private int limit;
+
+  private final NestingStack nestingStack;
+  private final StringBuilder currentKey;
+  private final StringBuilder currentString;
+  private JsonStateMachine currentState;
+  private Status currentStatus;
+  private JsonToken currentToken;
+  private String failure;
+  private boolean skipping;
+
+  /**
+   * Creates a reader with an 8K character buffer.
+   *
+   * @param reader the source of the document
+   */
+  public JsonReader(Reader reader) {
+    this(reader, DEFAULT_BUFFER_SIZE);
+  }
+
+  /**
+   * Creates a reader with a buffer of the given size.
+   *
+   * @param reader     the source of the document
+   * @param bufferSize the number of characters read from the source at once
+   * @throws IllegalArgumentException if bufferSize is not positive
+   */
+  public JsonReader(Reader reader, int bufferSize) {
+    if (bufferSize <= 0) {
+      throw new IllegalArgumentException("buffer size must be positive");
+    }
+    this.reader = reader;
+    this.buffer = new char[bufferSize];
+    this.nestingStack = new NestingStack();
+    this.currentKey = new StringBuilder();
+    this.currentString = new StringBuilder();
+    this.currentState = JsonStateMachine.INITIALIZATION;
+    this.currentStatus = Status.EMPTY;
+  }
+
+  /**
+   * Reads the next token of the document.
+   * Once the root object is closed only whitespace may follow, END_DOCUMENT is returned at the
+   * end of the input. An input without any token also ends with END_DOCUMENT, with the status
+   * still Empty.
+   *
+   * @return the token read
+   * @throws IOException          if the source cannot be read
+   * @throws InvalidJsonException if the document is invalid or ends before the root is closed
+   */
+  public JsonToken nextToken() throws IOException, InvalidJsonException {
+    if (failure != null) {
+      throw new InvalidJsonException(failure);
+    }
+    if (currentToken == JsonToken.END_DOCUMENT) {
+      return currentToken;
+    }
+    while (true) {
+      int c = nextNonWhitespace();
+      if (c < 0) {
+        return handleEndOfInput();
+      }
+      JsonToken token = processStateMachine((char) c);
+      if (token != null) {
+        currentToken = token;
+        return token;
+      }
+    }
+  }
+
+  /**
+   * Skips the contents of the object or array that the current token opened.
+   * Afterwards the current token is the matching END_OBJECT or END_ARRAY, and the current
+   * key and string are still the ones read before the skipped part.
+   * Does nothing if the current token does not open an object or array.
+   *
+   * @throws IOException          if the source cannot be read
+   * @throws InvalidJsonException if the skipped part is invalid
+   */
+  public void skipChildren() throws IOException, InvalidJsonException {
+    if (currentToken != JsonToken.START_OBJECT && currentToken != JsonToken.START_ARRAY) {
+      return;
+    }
+    int depth = nestingStack.depth();
+    skipping = true;
+    try {
+      while (nestingStack.depth() >= depth) {
+        nextToken();
+      }
+    } finally {
+      skipping = false;
+    }
+  }
+
+  /**
+   * Returns the token returned by the last call of nextToken.
+   *
+   * @return the current token, or null before the first call
+   */
+  public JsonToken currentToken() {
+    return currentToken;
+  }
+
+  /**
+   * Returns the most recent key, set by a KEY token and kept while its value is read.
+   *
+   * @return the key
+   */
+  public String currentKey() {
+    return currentKey.toString();
+  }
+
+  /**
+   * Returns the value of the current STRING token.
+   *
+   * @return the string value
+   */
+  public String currentString() {
+    return currentString.toString();
+  }
+
+  /**
+   * Returns the status of the document read so far.
+   *
+   * @return Empty before the root object, Valid after it, Invalid after an error,
+   *         Incomplete otherwise
+   */
+  public Status status() {
+    return currentStatus;
+  }
+
+  /**
+   * Closes the underlying Reader.
+   *
+   * @throws IOException if the source cannot be closed
+   */
+  @Override
+  public void close() throws IOException {
+    reader.close();
+  }
+
+  /**
+   * Moves the state machine on by a single character outside keys and values.
+   *
+   * @param c the character, which is not whitespace
+   * @return the token completed by the character, or null if it completes none
+   * @throws IOException          if the source cannot be read
+   * @throws InvalidJsonException if the character is invalid in the current state
+   */
+  private JsonToken processStateMachine(char c) throws IOException, InvalidJsonException {
+    switch (currentState) {
+      case INITIALIZATION:
+        return handleInitialization(c);
+      case EXPECT_KEY:
+        return handleExpectKey(c);
+      case END_KEY:
+        return handleKeyEnding(c);
+      case EXPECT_VALUE_OR_NESTED_OBJECT:
+        return handleIntermediateStage(c);
+      case FINAL_STAGE:
+        return handleFinalStage(c);
+      default:
+        throw fail("error in state initialization");
+    }
+  }
+
+  /**
+   * Expects the opening curly brace of the root object.
+   *
+   * @param c the current character
+   * @return START_OBJECT
+   * @throws InvalidJsonException if the character is not '{'
+   */
+  private JsonToken handleInitialization(char c) throws InvalidJsonException {
+    if (c != '{') {
+      throw fail("json should start with {");
+    }
+    currentStatus = Status.INCOMPLETE;
+    return openObject();
+  }
+
+  /**
+   * Expects the opening quote of a key and reads the whole key.
+   *
+   * @param c the current character
+   * @return KEY
+   * @throws IOException          if the source cannot be read
+   * @throws InvalidJsonException if the character is not '"' or the key is invalid
+   */
+  private JsonToken handleExpectKey(char c) throws IOException, InvalidJsonException {
+    if (c != '"') {
+      throw fail("error in key initialization");
+    }
+    currentState = JsonStateMachine.STARTING_KEY;
+    readKey();
+    currentState = JsonStateMachine.END_KEY;
+    return JsonToken.KEY;
+  }
+
+  /**
+   * Expects the colon between a key and its value.
+   *
+   * @param c the current character
+   * @return null, the colon is no token
+   * @throws InvalidJsonException if the character is not ':'
+   */
+  private JsonToken handleKeyEnding(char c) throws InvalidJsonException {
+    if (c != ':') {
+      throw fail("key should be followed by :");
+    }
+    currentState = JsonStateMachine.EXPECT_VALUE_OR_NESTED_OBJECT;
+    return null;
+  }
+
+  /**
+   * Expects a value, which is a string, an object or an array, or the end of an array.
+   *
+   * @param c the current character
+   * @return the token started or completed by the character
+   * @throws IOException          if the source cannot be read
+   * @throws InvalidJsonException if the character cannot start a value
+   */
+  private JsonToken handleIntermediateStage(char c) throws IOException, InvalidJsonException {
+    switch (c) {
+      case '{':
+        return openObject();
+      case '"':
+        currentState = JsonStateMachine.EXPECT_VALUE;
+        readString();
+        currentState = JsonStateMachine.FINAL_STAGE;
+        return JsonToken.STRING;
+      case '[':
+        nestingStack.pushArray();
+        return JsonToken.START_ARRAY;
+      case ']':
+        return handleFinalStage(c);
+      default:
+        throw fail("Unexpected char");
+    }
+  }
+
+  /**
+   * Expects a comma or the end of the enclosing object or array after a value.
+   *
+   * @param c the current character
+   * @return END_OBJECT or END_ARRAY, or null for a comma
+   * @throws InvalidJsonException if the character is invalid or closes the wrong container
+   */
+  private JsonToken handleFinalStage(char c) throws InvalidJsonException {
+    switch (c) {
+      case '}':
+        if (!nestingStack.isObjectOnTop()) {
+          throw fail("error in closing json with }");
+        }
+        nestingStack.pop();
+        if (nestingStack.isEmpty()) {
+          currentState = JsonStateMachine.END;
+          currentStatus = Status.VALID;
+        } else {
+          currentState = JsonStateMachine.FINAL_STAGE;
+        }
+        return JsonToken.END_OBJECT;
+      case ',':
+        currentState = nestingStack.isArrayOnTop()
+                ? JsonStateMachine.EXPECT_VALUE_OR_NESTED_OBJECT
+                : JsonStateMachine.EXPECT_KEY;
+        return null;
+      case ']':
+        if (!nestingStack.isArrayOnTop()) {
+          throw fail("error in closing array with ]");
+        }
+        nestingStack.pop();
+        currentState = JsonStateMachine.FINAL_STAGE;
+        return JsonToken.END_ARRAY;
+      default:
+        throw fail("json or array can end in only } or ]");
+    }
+  }
+
+  /**
+   * Handles the end of the input, which is only allowed outside the root object.
+   *
+   * @return END_DOCUMENT
+   * @throws InvalidJsonException if the root object is still open
+   */
+  private JsonToken handleEndOfInput() throws InvalidJsonException {
+    if (currentState != JsonStateMachine.INITIALIZATION && currentState != JsonStateMachine.END) {
+      throw truncated();
+    }
+    currentToken = JsonToken.END_DOCUMENT;
+    return currentToken;
+  }
+
+  /**
+   * Opens an object.
+   *
+   * @return START_OBJECT
+   */
+  private JsonToken openObject() {
+    nestingStack.pushObject();
+    currentState = JsonStateMachine.EXPECT_KEY;
+    return JsonToken.START_OBJECT;
+  }
+
+  /**
+   * Reads the characters of a key after its opening quote, up to and including the closing one.
+   * The first character must be a letter and the others letters or digits.
+   *
+   * @throws IOException          if the source cannot be read
+   * @throws InvalidJsonException if a character is not allowed or the input ends
+   */
+  private void readKey() throws IOException, InvalidJsonException {
+    if (!skipping) {
+      currentKey.setLength(0);
+    }
+    if (!fill()) {
+      throw truncated();
+    }
+    if (!Character.isLetter(buffer[position])) {
+      throw fail("json first char should be letter");
+    }
+    while (true) {
+      int start = position;
+      while (position < limit && buffer[position] != '"') {
+        if (!Character.isLetterOrDigit(buffer[position])) {
+          throw fail("only letters & digits are allowed");
+        }
+        position++;
+      }
+      if (!skipping) {
+        currentKey.append(buffer, start, position - start);
+      }
+      if (position < limit) {
+        position++;
+        return;
+      }
+      if (!fill()) {
+        throw truncated();
+      }
+    }
+  }
+
+  /**
+   * Reads the characters of a value after its opening quote, up to and including the closing
+   * one. Since the value can contain any characters, no validation is applied.
+   *
+   * @throws IOException          if the source cannot be read
+   * @throws InvalidJsonException if the input ends
+   */
+  private void readString() throws IOException, InvalidJsonException {
+    if (!skipping) {
+      currentString.setLength(0);
+    }
+    while (true) {
+      int start = position;
+      while (position < limit && buffer[position] != '"') {
+        position++;
+      }
+      if (!skipping) {
+        currentString.append(buffer, start, position - start);
+      }
+      if (position < limit) {
+        position++;
+        return;
+      }
+      if (!fill()) {
+        throw truncated();
+      }
+    }
+  }
+
+  /**
+   * Skips whitespace and returns the next character, leaving the buffer after it.
+   *
+   * @return the character, or -1 at the end of the input
+   * @throws IOException if the source cannot be read
+   */
+  private int nextNonWhitespace() throws IOException {
+    while (fill()) {
+      char c = buffer[position++];
+      if (!Character.isWhitespace(c)) {
+        return c;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Refills the buffer from the source once all of it has been consumed.
+   *
+   * @return true if there is at least one unconsumed character, false at the end of the input
+   * @throws IOException if the source cannot be read
+   */
+  private boolean fill() throws IOException {
+    while (position == limit) {
+      int read = reader.read(buffer, 0, buffer.length);
+      if (read < 0) {
+        return false;
+      }
+      position = 0;
+      limit = read;
+    }
+    return true;
+  }
+
+  /**
+   * Creates the exception to throw when the input ends inside the root object.
+   * The status stays Incomplete, every later call of nextToken throws the same message.
+   *
+   * @return the exception
+   */
+  private InvalidJsonException truncated() {
+    failure = "Error: unexpected end of inputState :" + currentState.getDescription();
+    return new InvalidJsonException(failure);
+  }
+
+  /**
+   * Marks the document invalid and creates the exception to throw.
+   * Every later call of nextToken throws an exception with the same message.
+   *
+   * @param message describes the error
+   * @return the exception
+   */
+  private InvalidJsonException fail(String message) {
+    currentStatus = Status.INVALID;
+    failure = "Error: " + message + "State :" + currentState.getDescription();
+    return new InvalidJsonException(failure);
+  }
+}
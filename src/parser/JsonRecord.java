@@ -0,0 +1,77 @@
+package parser;
+
+import validator.Status;
+
+/**
+ * The result of parsing one record of a JSON Lines or concatenated-document input.
+ *
+ * @param <T> the output type of the parser that read the record
+ */
+public final class JsonRecord<T> {
+  private final Status status;
+  private final long offset;
+  private final long length;
+  private final T output;
+
+  /**
+   * Creates a record result.
+   *
+   * @param status the status of the record
+   * @param offset the byte offset of the record in the input
+   * @param length the number of bytes of the record
+   * @param output the output of the parser after the record
+   */
+  public JsonRecord(Status status, long offset, long length, T output) {
+    this.status = status;
+    this.offset = offset;
+    this.length = length;
+    this.output = output;
+  }
+
+  /**
+   * Returns the status of the record.
+   *
+   * @return Valid, Invalid, or Incomplete for a record cut off by the end of the input
+   */
+  public Status status() {
+    return status;
+  }
+
+  /**
+   * Returns the byte offset of the first character of the record.
+   *
+   * @return the offset from the start of the input
+   */
+  public long offset() {
+    return offset;
+  }
+
+  /**
+   * Returns the length of the record in bytes.
+   * A valid record ends with its closing brace, an invalid one with the end of its line.
+   *
+   * @return the number of bytes
+   */
+  public long length() {
+    return length;
+  }
+
+  /**
+   * Returns the output of the parser for the record, e.g. the root node of a JsonTreeBuilder.
+   *
+   * @return the output
+   */
+  public T output() {
+    return output;
+  }
+
+  /**
+   * Describes the record for logging.
+   *
+   * @return the status, offset and length
+   */
+  @Override
+  public String toString() {
+    return status + " [" + offset + ", " + (offset + length) + ")";
+  }
+}
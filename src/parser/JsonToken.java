@@ -0,0 +1,14 @@
+package parser;
+
+/**
+ * The tokens a JsonReader returns from nextToken.
+ */
+public enum JsonToken {
+  START_OBJECT,
+  END_OBJECT,
+  START_ARRAY,
+  END_ARRAY,
+  KEY,
+  STRING,
+  END_DOCUMENT
+}
@@ -0,0 +1,166 @@
+package parser;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * A stack of open objects and arrays stored as one bit per nesting level.
+ * A set bit marks an array and a cleared bit marks an object. The bits live in a growable
+ * long array, so pushing and peeking never box a value or take a lock and depths of millions
+ * of levels cost only a few hundred kilobytes.
+ */
+public final class NestingStack {
+  private static final int INITIAL_WORDS = 1;
+
+  private long[] levels;
+  private int depth;
+
+  /**
+   * Creates an empty stack.
+   */
+  public NestingStack() {
+    levels = new long[INITIAL_WORDS];
+    depth = 0;
+  }
+
+  /**
+   * Opens an object on top of the stack.
+   */
+  public void pushObject() {
+    ensureCapacity();
+    levels[depth >>> 6] &= ~(1L << depth);
+    depth++;
+  }
+
+  /**
+   * Opens an array on top of the stack.
+   */
+  public void pushArray() {
+    ensureCapacity();
+    levels[depth >>> 6] |= 1L << depth;
+    depth++;
+  }
+
+  /**
+   * Removes the innermost object or array.
+   *
+   * @throws IllegalStateException if the stack is empty
+   */
+  public void pop() {
+    if (depth == 0) {
+      throw new IllegalStateException("nesting stack is empty");
+    }
+    depth--;
+  }
+
+  /**
+   * Checks whether the innermost open element is an object.
+   *
+   * @return true if the stack is not empty and an object is on top
+   */
+  public boolean isObjectOnTop() {
+    return depth > 0 && !isArrayAt(depth - 1);
+  }
+
+  /**
+   * Checks whether the innermost open element is an array.
+   *
+   * @return true if the stack is not empty and an array is on top
+   */
+  public boolean isArrayOnTop() {
+    return depth > 0 && isArrayAt(depth - 1);
+  }
+
+  /**
+   * Checks whether the element at the given level is an array, level 0 being the outermost.
+   *
+   * @param level the nesting level, less than depth()
+   * @return true if the element at that level is an array
+   */
+  public boolean isArrayAt(int level) {
+    return (levels[level >>> 6] & (1L << level)) != 0;
+  }
+
+  /**
+   * Returns the number of open objects and arrays.
+   *
+   * @return the nesting depth
+   */
+  public int depth() {
+    return depth;
+  }
+
+  /**
+   * Checks whether all objects and arrays have been closed.
+   *
+   * @return true if the stack is empty
+   */
+  public boolean isEmpty() {
+    return depth == 0;
+  }
+
+  /**
+   * Removes all levels while keeping the bit storage for reuse.
+   */
+  public void clear() {
+    depth = 0;
+  }
+
+  /**
+   * Creates an independent stack holding the same levels.
+   *
+   * @return a copy of this stack
+   */
+  public NestingStack copy() {
+    NestingStack copy = new NestingStack();
+    copy.levels = Arrays.copyOf(levels, levels.length);
+    copy.depth = depth;
+    return copy;
+  }
+
+  /**
+   * Writes the depth followed by the words holding the levels.
+   *
+   * @param out the destination
+   * @throws IOException if writing fails
+   */
+  void writeTo(DataOutput out) throws IOException {
+    out.writeInt(depth);
+    for (int i = 0; i < (depth + Long.SIZE - 1) / Long.SIZE; i++) {
+      out.writeLong(levels[i]);
+    }
+  }
+
+  /**
+   * Replaces the levels with the ones written by writeTo.
+   *
+   * @param in the source
+   * @throws IOException if reading fails, the depth is negative or the words are missing
+   */
+  void readFrom(DataInput in) throws IOException {
+    int newDepth = in.readInt();
+    if (newDepth < 0) {
+      throw new IOException("negative nesting depth");
+    }
+    int words = (newDepth + Long.SIZE - 1) / Long.SIZE;
+    AbstractJsonParser.checkRemaining(in, (long) words * Long.BYTES);
+    if (words > levels.length) {
+      levels = new long[words];
+    }
+    for (int i = 0; i < words; i++) {
+      levels[i] = in.readLong();
+    }
+    depth = newDepth;
+  }
+
+  /**
+   * Doubles the bit storage when the next push would not fit.
+   */
+  private void ensureCapacity() {
+    if (depth == levels.length * Long.SIZE) {
+      levels = Arrays.copyOf(levels, levels.length * 2);
+    }
+  }
+}
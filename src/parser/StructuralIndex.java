@@ -0,0 +1,192 @@
+package parser;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * A first pass over UTF-8 input that records where the state machine has work to do.
+ * The input is processed in blocks of 64 bytes. Each block is turned into 64-bit masks of
+ * quotes, whitespace and non-ASCII bytes, eight bytes at a time, and a prefix XOR over the
+ * quote mask tells which bytes are inside a string. The index then holds every quote and
+ * every non-whitespace byte outside a string, so parsers can jump between these positions
+ * instead of looking at each byte. Since this grammar has no escape sequences, every quote
+ * starts or ends a string.
+ */
+public final class StructuralIndex {
+  private static final int BLOCK_SIZE = 64;
+  private static final int INITIAL_CAPACITY = 64;
+
+  private final ByteBuffer buffer;
+  private final int from;
+  private final int to;
+  private int[] positions;
+  private int size;
+  private boolean asciiOnly;
+
+  /**
+   * Creates an empty index over a range of a buffer.
+   *
+   * @param buffer the UTF-8 input
+   * @param from   index of the first byte
+   * @param to     index after the last byte
+   */
+  private StructuralIndex(ByteBuffer buffer, int from, int to) {
+    this.buffer = buffer;
+    this.from = from;
+    this.to = to;
+    this.positions = new int[INITIAL_CAPACITY];
+    this.size = 0;
+    this.asciiOnly = true;
+  }
+
+  /**
+   * Indexes the remaining bytes of a buffer, from its position to its limit.
+   * The buffer position is not changed.
+   *
+   * @param buffer the UTF-8 input, starting outside of any string
+   * @return the structural index of the buffer
+   */
+  public static StructuralIndex build(ByteBuffer buffer) {
+    StructuralIndex index = new StructuralIndex(buffer, buffer.position(), buffer.limit());
+    index.indexBlocks();
+    return index;
+  }
+
+  /**
+   * Returns the indexed buffer.
+   *
+   * @return the UTF-8 input
+   */
+  public ByteBuffer buffer() {
+    return buffer;
+  }
+
+  /**
+   * Returns the index of the first indexed byte.
+   *
+   * @return the start of the indexed range
+   */
+  public int from() {
+    return from;
+  }
+
+  /**
+   * Returns the index after the last indexed byte.
+   *
+   * @return the end of the indexed range
+   */
+  public int to() {
+    return to;
+  }
+
+  /**
+   * Returns the number of structural positions.
+   *
+   * @return the number of positions
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns a structural position.
+   *
+   * @param i the number of the position, less than size()
+   * @return the buffer index of the i-th structural byte
+   */
+  public int position(int i) {
+    if (i >= size) {
+      throw new IndexOutOfBoundsException("position " + i + " of " + size);
+    }
+    return positions[i];
+  }
+
+  /**
+   * Checks whether the indexed range only holds ASCII bytes.
+   * Parsers fall back to byte-by-byte decoding otherwise.
+   *
+   * @return true if no byte is 0x80 or above
+   */
+  public boolean isAsciiOnly() {
+    return asciiOnly;
+  }
+
+  /**
+   * Returns the positions array itself for package-private consumers that iterate it directly.
+   *
+   * @return the positions, of which only the first size() are used
+   */
+  int[] positions() {
+    return positions;
+  }
+
+  /**
+   * Computes the masks of every block and collects the structural positions.
+   */
+  private void indexBlocks() {
+    long inString = 0;
+    for (int block = from; block < to; block += BLOCK_SIZE) {
+      int length = Math.min(BLOCK_SIZE, to - block);
+      long quotes = 0;
+      long whitespace = 0;
+      long nonAscii = 0;
+      if (length == BLOCK_SIZE) {
+        for (int lane = 0; lane < BLOCK_SIZE; lane += Long.BYTES) {
+          long word = SwarScanner.readWord(buffer, block + lane);
+          quotes |= SwarScanner.movemask(SwarScanner.quoteBytes(word)) << lane;
+          whitespace |= SwarScanner.movemask(SwarScanner.whitespaceBytes(word)) << lane;
+          nonAscii |= SwarScanner.nonAsciiBytes(word);
+        }
+      } else {
+        for (int lane = 0; lane < length; lane++) {
+          byte b = buffer.get(block + lane);
+          quotes |= (b == '"' ? 1L : 0L) << lane;
+          whitespace |= (SwarScanner.isWhitespace(b) ? 1L : 0L) << lane;
+          nonAscii |= b & 0x80;
+        }
+        whitespace |= -1L << length;
+      }
+      if (nonAscii != 0) {
+        asciiOnly = false;
+      }
+      long strings = prefixXor(quotes) ^ inString;
+      inString = strings >> 63;
+      addPositions(block, quotes | (~strings & ~whitespace));
+    }
+  }
+
+  /**
+   * Computes for every bit the XOR of itself and all lower bits.
+   * Applied to the quote mask it sets the bits from an opening quote up to, but not
+   * including, the matching closing quote.
+   *
+   * @param bits the quote mask
+   * @return the in-string mask
+   */
+  static long prefixXor(long bits) {
+    bits ^= bits << 1;
+    bits ^= bits << 2;
+    bits ^= bits << 4;
+    bits ^= bits << 8;
+    bits ^= bits << 16;
+    bits ^= bits << 32;
+    return bits;
+  }
+
+  /**
+   * Appends the positions of the set bits of a block mask.
+   *
+   * @param block index of the first byte of the block
+   * @param bits  the structural mask of the block
+   */
+  private void addPositions(int block, long bits) {
+    int count = Long.bitCount(bits);
+    if (size + count > positions.length) {
+      positions = Arrays.copyOf(positions, Math.max(positions.length * 2, size + count));
+    }
+    while (bits != 0) {
+      positions[size++] = block + Long.numberOfTrailingZeros(bits);
+      bits &= bits - 1;
+    }
+  }
+}
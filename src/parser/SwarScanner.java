@@ -0,0 +1,182 @@
+package parser;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Word-at-a-time scanning of UTF-8 input (SIMD within a register).
+ * Eight bytes are read as one little-endian long through a VarHandle and tested together,
+ * so long string values and indentation are skipped without looking at each byte.
+ * Works on heap and direct buffers alike, including memory-mapped files.
+ */
+final class SwarScanner {
+  private static final VarHandle LONGS =
+          MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+  private static final long LOW_BITS = 0x7F7F7F7F7F7F7F7FL;
+  private static final long HIGH_BITS = 0x8080808080808080L;
+  private static final long QUOTES = 0x2222222222222222L;
+  private static final long SPACES = 0x2020202020202020L;
+  private static final long NEWLINES = 0x0A0A0A0A0A0A0A0AL;
+  private static final long RETURNS = 0x0D0D0D0D0D0D0D0DL;
+  private static final long TABS = 0x0909090909090909L;
+
+  /**
+   * Prevents instantiation, the scanner only has static methods.
+   */
+  private SwarScanner() {
+  }
+
+  /**
+   * Finds the end of a run of string characters that need no decoding.
+   *
+   * @param buffer the UTF-8 input
+   * @param from   index to start scanning at
+   * @param to     index to stop scanning at
+   * @return index of the first quote or non-ASCII byte, or to if there is none
+   */
+  static int skipStringBody(ByteBuffer buffer, int from, int to) {
+    int i = from;
+    for (; i + Long.BYTES <= to; i += Long.BYTES) {
+      long word = readWord(buffer, i);
+      long stops = quoteBytes(word) | nonAsciiBytes(word);
+      if (stops != 0) {
+        return i + (Long.numberOfTrailingZeros(stops) >>> 3);
+      }
+    }
+    for (; i < to; i++) {
+      byte b = buffer.get(i);
+      if (b < 0 || b == '"') {
+        return i;
+      }
+    }
+    return to;
+  }
+
+  /**
+   * Finds the end of a run of spaces, tabs, carriage returns and newlines.
+   * Other whitespace characters end the run and are left to the state machine.
+   *
+   * @param buffer the UTF-8 input
+   * @param from   index to start scanning at
+   * @param to     index to stop scanning at
+   * @return index of the first byte that is not one of the four, or to if there is none
+   */
+  static int skipWhitespace(ByteBuffer buffer, int from, int to) {
+    int i = from;
+    for (; i + Long.BYTES <= to; i += Long.BYTES) {
+      long stops = ~whitespaceBytes(readWord(buffer, i)) & HIGH_BITS;
+      if (stops != 0) {
+        return i + (Long.numberOfTrailingZeros(stops) >>> 3);
+      }
+    }
+    for (; i < to; i++) {
+      if (!isWhitespace(buffer.get(i))) {
+        return i;
+      }
+    }
+    return to;
+  }
+
+  /**
+   * Finds the next newline.
+   *
+   * @param buffer the UTF-8 input
+   * @param from   index to start scanning at
+   * @param to     index to stop scanning at
+   * @return index of the first newline, or to if there is none
+   */
+  static int findNewline(ByteBuffer buffer, int from, int to) {
+    int i = from;
+    for (; i + Long.BYTES <= to; i += Long.BYTES) {
+      long stops = zeroBytes(readWord(buffer, i) ^ NEWLINES);
+      if (stops != 0) {
+        return i + (Long.numberOfTrailingZeros(stops) >>> 3);
+      }
+    }
+    for (; i < to; i++) {
+      if (buffer.get(i) == '\n') {
+        return i;
+      }
+    }
+    return to;
+  }
+
+  /**
+   * Reads eight bytes as a little-endian long, the byte at index being the lowest.
+   *
+   * @param buffer the UTF-8 input
+   * @param index  index of the first byte, at most limit - 8
+   * @return the eight bytes
+   */
+  static long readWord(ByteBuffer buffer, int index) {
+    return (long) LONGS.get(buffer, index);
+  }
+
+  /**
+   * Marks the quote bytes of a word.
+   *
+   * @param word eight bytes
+   * @return a word with the high bit set in exactly the bytes that are quotes
+   */
+  static long quoteBytes(long word) {
+    return zeroBytes(word ^ QUOTES);
+  }
+
+  /**
+   * Marks the spaces, tabs, carriage returns and newlines of a word.
+   *
+   * @param word eight bytes
+   * @return a word with the high bit set in exactly the bytes that are one of the four
+   */
+  static long whitespaceBytes(long word) {
+    return zeroBytes(word ^ SPACES) | zeroBytes(word ^ NEWLINES)
+            | zeroBytes(word ^ RETURNS) | zeroBytes(word ^ TABS);
+  }
+
+  /**
+   * Marks the bytes of a word that are not ASCII.
+   *
+   * @param word eight bytes
+   * @return a word with the high bit set in exactly the bytes that are 0x80 or above
+   */
+  static long nonAsciiBytes(long word) {
+    return word & HIGH_BITS;
+  }
+
+  /**
+   * Gathers the high bit of every byte into the low eight bits, the first byte
+   * becoming bit 0.
+   *
+   * @param marks a word with only high bits of bytes set
+   * @return the eight marks packed into one byte
+   */
+  static long movemask(long marks) {
+    return ((marks >>> 7) * 0x0102040810204080L) >>> 56;
+  }
+
+  /**
+   * Checks a single byte against the four whitespace characters skipped word-at-a-time.
+   *
+   * @param b the byte to check
+   * @return true if the byte is a space, tab, carriage return or newline
+   */
+  static boolean isWhitespace(byte b) {
+    return b == ' ' || b == '\n' || b == '\r' || b == '\t';
+  }
+
+  /**
+   * Marks the zero bytes of a word.
+   * Unlike the usual approximate test this one is exact, so the lowest marked byte
+   * is always the first match.
+   *
+   * @param word eight bytes
+   * @return a word with the high bit set in exactly the bytes that are zero
+   */
+  static long zeroBytes(long word) {
+    long sum = (word & LOW_BITS) + LOW_BITS;
+    return ~(sum | word | LOW_BITS);
+  }
+}
@@ -0,0 +1,236 @@
+package validator;
+
+import java.util.Arrays;
+
+/**
+ * The JsonStateMachine grammar compiled into a transition table.
+ * Every input character is first mapped to a character class, ASCII characters through a
+ * lookup table, and the pair (state, class) then indexes a single table entry that holds the
+ * next state and the stack action to perform. STARTING_KEY is split in two table states so
+ * the first key character needs no separate flag.
+ */
+final class JsonTransitionTable {
+
+  static final int INITIALIZATION = 0;
+  static final int EXPECT_KEY = 1;
+  static final int KEY_FIRST = 2;
+  static final int KEY_REST = 3;
+  static final int END_KEY = 4;
+  static final int EXPECT_VALUE_OR_NESTED_OBJECT = 5;
+  static final int EXPECT_VALUE = 6;
+  static final int FINAL_STAGE = 7;
+  static final int END = 8;
+  static final int STATE_COUNT = 9;
+
+  static final int WHITESPACE = 0;
+  static final int OPEN_BRACE = 1;
+  static final int CLOSE_BRACE = 2;
+  static final int OPEN_BRACKET = 3;
+  static final int CLOSE_BRACKET = 4;
+  static final int QUOTE = 5;
+  static final int COLON = 6;
+  static final int COMMA = 7;
+  static final int LETTER = 8;
+  static final int DIGIT = 9;
+  static final int OTHER = 10;
+  static final int CLASS_COUNT = 11;
+
+  static final int STATE_MASK = 0x0F;
+  static final int ACTION_SHIFT = 4;
+  static final int NONE = 0;
+  static final int PUSH_OBJECT = 1;
+  static final int PUSH_ARRAY = 2;
+  static final int CLOSE_OBJECT = 3;
+  static final int CLOSE_ARRAY = 4;
+  static final int NEXT_ELEMENT = 5;
+  static final int ERROR = 6;
+
+  /**
+   * Transition entries indexed by state * CLASS_COUNT + class.
+   */
+  static final byte[] TRANSITIONS = new byte[STATE_COUNT * CLASS_COUNT];
+
+  /**
+   * Character class of every ASCII character.
+   */
+  static final byte[] ASCII_CLASSES = new byte[128];
+
+  private static final JsonStateMachine[] STATES = {
+    JsonStateMachine.INITIALIZATION,
+    JsonStateMachine.EXPECT_KEY,
+    JsonStateMachine.STARTING_KEY,
+    JsonStateMachine.STARTING_KEY,
+    JsonStateMachine.END_KEY,
+    JsonStateMachine.EXPECT_VALUE_OR_NESTED_OBJECT,
+    JsonStateMachine.EXPECT_VALUE,
+    JsonStateMachine.FINAL_STAGE,
+    JsonStateMachine.END
+  };
+
+  private static final String[] ERROR_MESSAGES = {
+    "json should start with {",
+    "error in key initialization",
+    "json first char should be letter",
+    "only letters & digits are allowed",
+    "key should be followed by :",
+    "Unexpected char",
+    "",
+    "json or array can end in only } or ]",
+    "error in state initialization"
+  };
+
+  static {
+    for (char c = 0; c < ASCII_CLASSES.length; c++) {
+      ASCII_CLASSES[c] = (byte) classify(c);
+    }
+
+    Arrays.fill(TRANSITIONS, (byte) (ERROR << ACTION_SHIFT));
+
+    skipWhitespace(INITIALIZATION);
+    set(INITIALIZATION, OPEN_BRACE, EXPECT_KEY, PUSH_OBJECT);
+
+    skipWhitespace(EXPECT_KEY);
+    set(EXPECT_KEY, QUOTE, KEY_FIRST, NONE);
+
+    set(KEY_FIRST, LETTER, KEY_REST, NONE);
+
+    set(KEY_REST, LETTER, KEY_REST, NONE);
+    set(KEY_REST, DIGIT, KEY_REST, NONE);
+    set(KEY_REST, QUOTE, END_KEY, NONE);
+
+    skipWhitespace(END_KEY);
+    set(END_KEY, COLON, EXPECT_VALUE_OR_NESTED_OBJECT, NONE);
+
+    skipWhitespace(EXPECT_VALUE_OR_NESTED_OBJECT);
+    set(EXPECT_VALUE_OR_NESTED_OBJECT, OPEN_BRACE, EXPECT_KEY, PUSH_OBJECT);
+    set(EXPECT_VALUE_OR_NESTED_OBJECT, QUOTE, EXPECT_VALUE, NONE);
+    set(EXPECT_VALUE_OR_NESTED_OBJECT, OPEN_BRACKET, EXPECT_VALUE_OR_NESTED_OBJECT, PUSH_ARRAY);
+    set(EXPECT_VALUE_OR_NESTED_OBJECT, CLOSE_BRACKET, FINAL_STAGE, CLOSE_ARRAY);
+
+    for (int characterClass = 0; characterClass < CLASS_COUNT; characterClass++) {
+      set(EXPECT_VALUE, characterClass, EXPECT_VALUE, NONE);
+    }
+    set(EXPECT_VALUE, QUOTE, FINAL_STAGE, NONE);
+
+    skipWhitespace(FINAL_STAGE);
+    set(FINAL_STAGE, CLOSE_BRACE, FINAL_STAGE, CLOSE_OBJECT);
+    set(FINAL_STAGE, COMMA, EXPECT_KEY, NEXT_ELEMENT);
+    set(FINAL_STAGE, CLOSE_BRACKET, FINAL_STAGE, CLOSE_ARRAY);
+
+    skipWhitespace(END);
+  }
+
+  /**
+   * Prevents instantiation, the table is only accessed statically.
+   */
+  private JsonTransitionTable() {
+  }
+
+  /**
+   * Computes the character class of any character.
+   * Letters and digits follow Character.isLetter and Character.isLetterOrDigit like the
+   * switch-based validator, so non-ASCII letters are accepted in keys.
+   *
+   * @param c the character to classify
+   * @return the character class
+   */
+  static int classify(char c) {
+    switch (c) {
+      case '{':
+        return OPEN_BRACE;
+      case '}':
+        return CLOSE_BRACE;
+      case '[':
+        return OPEN_BRACKET;
+      case ']':
+        return CLOSE_BRACKET;
+      case '"':
+        return QUOTE;
+      case ':':
+        return COLON;
+      case ',':
+        return COMMA;
+      default:
+        break;
+    }
+    if (Character.isWhitespace(c)) {
+      return WHITESPACE;
+    }
+    if (Character.isLetter(c)) {
+      return LETTER;
+    }
+    if (Character.isLetterOrDigit(c)) {
+      return DIGIT;
+    }
+    return OTHER;
+  }
+
+  /**
+   * Returns the character class, using the lookup table for ASCII characters.
+   *
+   * @param c the character to classify
+   * @return the character class
+   */
+  static int classOf(char c) {
+    return c < ASCII_CLASSES.length ? ASCII_CLASSES[c] : classify(c);
+  }
+
+  /**
+   * Maps a table state back to the JsonStateMachine state it belongs to.
+   *
+   * @param state the table state
+   * @return the matching state machine state
+   */
+  static JsonStateMachine stateOf(int state) {
+    return STATES[state];
+  }
+
+  /**
+   * Maps a JsonStateMachine state to its table state.
+   *
+   * @param state          the state machine state
+   * @param firstCharacter whether a key being read has no characters yet
+   * @return the matching table state
+   */
+  static int tableStateOf(JsonStateMachine state, boolean firstCharacter) {
+    if (state == JsonStateMachine.STARTING_KEY && !firstCharacter) {
+      return KEY_REST;
+    }
+    int tableState = 0;
+    while (STATES[tableState] != state) {
+      tableState++;
+    }
+    return tableState;
+  }
+
+  /**
+   * Returns the message of the error raised by an unexpected character in a table state.
+   *
+   * @param state the table state
+   * @return the error message
+   */
+  static String errorMessage(int state) {
+    return ERROR_MESSAGES[state];
+  }
+
+  /**
+   * Lets whitespace leave a state unchanged.
+   *
+   * @param state the table state
+   */
+  private static void skipWhitespace(int state) {
+    set(state, WHITESPACE, state, NONE);
+  }
+
+  /**
+   * Stores a single transition.
+   *
+   * @param state          the current table state
+   * @param characterClass the class of the input character
+   * @param next           the next table state
+   * @param action         the stack action to perform
+   */
+  private static void set(int state, int characterClass, int next, int action) {
+    TRANSITIONS[state * CLASS_COUNT + characterClass] = (byte) (next | (action << ACTION_SHIFT));
+  }
+}
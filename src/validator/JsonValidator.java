@@ -1,9 +1,13 @@
 package validator;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
 
 import parser.AbstractJsonParser;
 import parser.InvalidJsonException;
 import parser.JsonParser;
+import parser.NestingStack;
 
 /**
  * JsonValidator is the implementation of the JsonParser interface.
@@ -23,6 +27,44 @@ public class JsonValidator extends AbstractJsonParser<String> {
   private static final char COMMA = ',';
 
 
+  /**
+   * Initializes a new JSON validator in the initial state.
+   */
+  public JsonValidator() {
+    super();
+  }
+
+  /**
+   * Initializes a validator that continues from a given point of a document.
+   * Used to validate parts of a document independently of each other.
+   *
+   * @param state          the state to start in
+   * @param firstCharacter whether a key being read has no characters yet
+   * @param stack          the objects and arrays open at that point, owned by the validator
+   * @param status         the status at that point
+   */
+  JsonValidator(JsonStateMachine state, boolean firstCharacter, NestingStack stack,
+                Status status) {
+    currentState = state;
+    this.firstCharacter = firstCharacter;
+    nestingStack = stack;
+    currentStatus = status;
+  }
+
+  /**
+   * Validates a UTF-8 encoded JSON file using memory-mapped windows.
+   * Heap usage stays constant regardless of the file size.
+   *
+   * @param path the file to validate
+   * @return the status of the file content, e.g. "Status:Valid"
+   * @throws IOException if the file cannot be read
+   */
+  public static String validate(Path path) throws IOException {
+    JsonValidator validator = new JsonValidator();
+    validator.input(path);
+    return validator.output();
+  }
+
   /**
    * Accept a single character as input, and return the new parser object as a result.
    * Ignores all the whitespaces if the current state is not in key and value.
@@ -35,7 +77,7 @@ public class JsonValidator extends AbstractJsonParser<String> {
    */
   @Override
   public JsonParser input(char c) throws InvalidJsonException {
-    if (currentStatus.equals(String.valueOf(Status.INVALID)) || canSkipWhiteSpace(c)) {
+    if (isInvalid() || canSkipWhiteSpace(c)) {
       return this;
     }
     processStateMachine(c);
@@ -51,7 +93,7 @@ public class JsonValidator extends AbstractJsonParser<String> {
    */
   @Override
   public String output() {
-    return currentStatus;
+    return currentStatus.toString();
   }
 
   /**
@@ -64,7 +106,8 @@ public class JsonValidator extends AbstractJsonParser<String> {
    * @param c The character to be processed
    * @throws InvalidJsonException if the character is invalid for the current state
    */
-  private void processStateMachine(char c) throws InvalidJsonException {
+  @Override
+  protected void processStateMachine(char c) throws InvalidJsonException {
     switch (currentState) {
       case INITIALIZATION:
         handleInitialization(c);
@@ -93,6 +136,48 @@ public class JsonValidator extends AbstractJsonParser<String> {
     }
   }
 
+  /**
+   * Returns the state the validator is in.
+   *
+   * @return the current state
+   */
+  JsonStateMachine state() {
+    return currentState;
+  }
+
+  /**
+   * Checks whether a key being read has no characters yet.
+   *
+   * @return true if the next key character is the first one
+   */
+  boolean isFirstCharacter() {
+    return firstCharacter;
+  }
+
+  /**
+   * Skips a run of value characters.
+   * Since the value can contain any characters, there is nothing to validate.
+   *
+   * @param chars the input characters
+   * @param from  index of the first character of the run
+   * @param to    index after the last character of the run
+   */
+  @Override
+  protected void handleValueChars(CharSequence chars, int from, int to) {
+  }
+
+  /**
+   * Skips a run of ASCII value bytes read from UTF-8 input.
+   * Since the value can contain any characters, there is nothing to validate.
+   *
+   * @param buffer the UTF-8 input
+   * @param from   index of the first byte of the run
+   * @param to     index after the last byte of the run
+   */
+  @Override
+  protected void handleValueBytes(ByteBuffer buffer, int from, int to) {
+  }
+
   /**
    * Throws an InvalidJsonException with a custom messgage.
    * Updates the status to INVALID.
@@ -101,7 +186,7 @@ public class JsonValidator extends AbstractJsonParser<String> {
    * @throws InvalidJsonException always throws an invalid json exception
    */
   protected void throwInvalidJson(String message) throws InvalidJsonException {
-    currentStatus = String.valueOf(Status.INVALID);
+    currentStatus = Status.INVALID;
     throw new InvalidJsonException("Error: " + message + "State :" + currentState.getDescription());
   }
 
@@ -116,10 +201,9 @@ public class JsonValidator extends AbstractJsonParser<String> {
     if (c != OPEN_BRACE) {
       throwInvalidJson("json should start with {");
     }
-    characterStack.push(OPEN_BRACE);
-    flowerBraces++;
+    nestingStack.pushObject();
     currentState = JsonStateMachine.EXPECT_KEY;
-    currentStatus = String.valueOf(Status.INCOMPLETE);
+    currentStatus = Status.INCOMPLETE;
   }
 
   /**
@@ -190,7 +274,7 @@ public class JsonValidator extends AbstractJsonParser<String> {
         break;
       case OPEN_BRACKET:
         currentState = JsonStateMachine.EXPECT_VALUE_OR_NESTED_OBJECT;
-        characterStack.push(OPEN_BRACKET);
+        nestingStack.pushArray();
         break;
       case CLOSE_BRACKET:
         handleFinalStage(c);
@@ -249,8 +333,7 @@ public class JsonValidator extends AbstractJsonParser<String> {
     if (c == QUOTE) {
       currentState = JsonStateMachine.EXPECT_VALUE;
     } else if (c == OPEN_BRACE) {
-      characterStack.push(OPEN_BRACE);
-      flowerBraces++;
+      nestingStack.pushObject();
       currentState = JsonStateMachine.EXPECT_KEY;
     }
   }
@@ -277,11 +360,10 @@ public class JsonValidator extends AbstractJsonParser<String> {
    * @throws InvalidJsonException if the closing brace is invalid
    */
   private void handleFlowerClosingForJson(char c) throws InvalidJsonException {
-    if (characterStack.peek() == OPEN_BRACE) {
-      characterStack.pop();
-      flowerBraces--;
-      if (flowerBraces == 0) {
-        currentStatus = String.valueOf(Status.VALID);
+    if (nestingStack.isObjectOnTop()) {
+      nestingStack.pop();
+      if (nestingStack.isEmpty()) {
+        currentStatus = Status.VALID;
         currentState = JsonStateMachine.END;
       } else {
         currentState = JsonStateMachine.FINAL_STAGE;
@@ -299,8 +381,8 @@ public class JsonValidator extends AbstractJsonParser<String> {
    * @throws InvalidJsonException if the closing bracket is invalid
    */
   private void handleBracketClosingForJson(char c) throws InvalidJsonException {
-    if (characterStack.peek() == OPEN_BRACKET) {
-      characterStack.pop();
+    if (nestingStack.isArrayOnTop()) {
+      nestingStack.pop();
       currentState = JsonStateMachine.FINAL_STAGE;
     } else {
       throwInvalidJson("error in closing array with ]");
@@ -0,0 +1,86 @@
+package validator;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import parser.AbstractJsonParser;
+
+/**
+ * Utility methods to validate many documents at once.
+ * The documents are shared out among a fixed number of workers. Each worker owns a single
+ * validator that it resets between documents, and claims the next batch of documents from a
+ * shared counter when it is done with its current one, so fast workers take over the
+ * remaining work of slow ones.
+ */
+public final class JsonValidators {
+  private static final int BATCH_SIZE = 64;
+
+  /**
+   * Prevents instantiation, the class only has static methods.
+   */
+  private JsonValidators() {
+  }
+
+  /**
+   * Validates every document on the common ForkJoinPool.
+   *
+   * @param documents the documents to validate
+   * @return the status of each document, in the same order
+   */
+  public static Status[] validateAll(List<? extends CharSequence> documents) {
+    return validateAll(documents, ForkJoinPool.commonPool(),
+            ForkJoinPool.getCommonPoolParallelism(), ValidatorEngine.STATE_MACHINE);
+  }
+
+  /**
+   * Validates every document on the given executor, e.g. a virtual thread per task executor.
+   *
+   * @param documents the documents to validate
+   * @param executor  runs the workers
+   * @param workers   the maximum number of workers, and so of validators, to use
+   * @param engine    the validator implementation each worker uses
+   * @return the status of each document, in the same order
+   * @throws IllegalArgumentException if workers is not positive
+   */
+  public static Status[] validateAll(List<? extends CharSequence> documents, Executor executor,
+                                     int workers, ValidatorEngine engine) {
+    if (workers <= 0) {
+      throw new IllegalArgumentException("at least one worker is needed");
+    }
+    CharSequence[] inputs = documents.toArray(new CharSequence[0]);
+    Status[] results = new Status[inputs.length];
+    AtomicInteger next = new AtomicInteger();
+    int batches = (inputs.length + BATCH_SIZE - 1) / BATCH_SIZE;
+    CompletableFuture<?>[] tasks = new CompletableFuture<?>[Math.min(workers, batches)];
+    for (int i = 0; i < tasks.length; i++) {
+      tasks[i] = CompletableFuture.runAsync(() -> work(inputs, results, next, engine), executor);
+    }
+    CompletableFuture.allOf(tasks).join();
+    return results;
+  }
+
+  /**
+   * Validates batches of documents with a single validator until none are left.
+   *
+   * @param inputs  the documents to validate
+   * @param results the status of each document
+   * @param next    index of the first document not claimed by any worker yet
+   * @param engine  the validator implementation to use
+   */
+  private static void work(CharSequence[] inputs, Status[] results, AtomicInteger next,
+                           ValidatorEngine engine) {
+    AbstractJsonParser<String> validator = engine.create();
+    int start;
+    while ((start = next.getAndAdd(BATCH_SIZE)) < inputs.length) {
+      int end = Math.min(inputs.length, start + BATCH_SIZE);
+      for (int i = start; i < end; i++) {
+        validator.reset();
+        validator.input(inputs[i]);
+        results[i] = validator.status();
+      }
+    }
+  }
+}
@@ -0,0 +1,311 @@
+package validator;
+
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import parser.NestingStack;
+
+/**
+ * Validates a single large document on several cores.
+ * The input is split into chunks that are processed on a ForkJoinPool in two parallel passes,
+ * each followed by a cheap sequential merge over the per-chunk summaries:
+ * <ol>
+ *   <li>Every chunk counts its quotes and reduces its braces and brackets outside strings to
+ *   the closers it leaves unmatched and the openers it leaves open. Whether the chunk starts
+ *   inside a string is not known yet, so both cases are computed in the same loop. The merge
+ *   uses a prefix over the quote counts to pick the right case, and a prefix over the
+ *   reductions to find the nesting stack at the start of every chunk.</li>
+ *   <li>Every chunk is validated from its nesting stack, speculatively starting in each state
+ *   that is possible inside or outside a string. Wrong guesses usually fail within a few
+ *   characters. The merge follows the exit state of each chunk into the next one.</li>
+ * </ol>
+ * The resulting status is the same as the status of a JsonValidator fed the whole input.
+ */
+public class ParallelJsonValidator {
+  private static final int DEFAULT_CHUNK_SIZE = 1 << 20;
+
+  private static final JsonStateMachine[] OUTSIDE_STRING = {
+    JsonStateMachine.INITIALIZATION,
+    JsonStateMachine.EXPECT_KEY,
+    JsonStateMachine.END_KEY,
+    JsonStateMachine.EXPECT_VALUE_OR_NESTED_OBJECT,
+    JsonStateMachine.FINAL_STAGE,
+    JsonStateMachine.END
+  };
+
+  private static final JsonStateMachine[] INSIDE_STRING = {
+    JsonStateMachine.STARTING_KEY,
+    JsonStateMachine.STARTING_KEY,
+    JsonStateMachine.EXPECT_VALUE
+  };
+
+  private static final boolean[] INSIDE_STRING_FIRST_CHARACTER = {true, false, true};
+
+  private final ForkJoinPool pool;
+  private final int chunkSize;
+
+  /**
+   * Creates a validator running on the common pool with 1M character chunks.
+   */
+  public ParallelJsonValidator() {
+    this(ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+  }
+
+  /**
+   * Creates a validator running on the given pool.
+   *
+   * @param pool      the pool to run the chunks on
+   * @param chunkSize the number of characters per chunk
+   * @throws IllegalArgumentException if chunkSize is not positive
+   */
+  public ParallelJsonValidator(ForkJoinPool pool, int chunkSize) {
+    if (chunkSize <= 0) {
+      throw new IllegalArgumentException("chunk size must be positive");
+    }
+    this.pool = pool;
+    this.chunkSize = chunkSize;
+  }
+
+  /**
+   * Validates a complete input.
+   *
+   * @param input the characters of the document
+   * @return the status a JsonValidator would report after reading the whole input
+   */
+  public Status validate(CharSequence input) {
+    int length = input.length();
+    int chunkCount = Math.max(1, (length + chunkSize - 1) / chunkSize);
+    if (chunkCount == 1) {
+      JsonValidator validator = new JsonValidator();
+      validator.input(input);
+      return validator.status();
+    }
+
+    List<ForkJoinTask<Reduction[]>> reductionTasks = new ArrayList<>(chunkCount);
+    for (int chunk = 0; chunk < chunkCount; chunk++) {
+      int start = chunk * chunkSize;
+      int end = Math.min(length, start + chunkSize);
+      reductionTasks.add(pool.submit(() -> reduce(input, start, end)));
+    }
+
+    boolean[] startsInString = new boolean[chunkCount];
+    NestingStack[] entryStacks = new NestingStack[chunkCount];
+    NestingStack stack = new NestingStack();
+    boolean inString = false;
+    for (int chunk = 0; chunk < chunkCount; chunk++) {
+      Reduction reduction = reductionTasks.get(chunk).join()[inString ? 1 : 0];
+      startsInString[chunk] = inString;
+      entryStacks[chunk] = stack.copy();
+      if (!reduction.apply(stack)) {
+        return Status.INVALID;
+      }
+      inString = reduction.endsInString;
+    }
+
+    List<ForkJoinTask<Exit[]>> validationTasks = new ArrayList<>(chunkCount);
+    for (int chunk = 0; chunk < chunkCount; chunk++) {
+      int start = chunk * chunkSize;
+      int end = Math.min(length, start + chunkSize);
+      boolean entryInString = startsInString[chunk];
+      NestingStack entryStack = entryStacks[chunk];
+      validationTasks.add(pool.submit(() -> speculate(input, start, end, entryInString, entryStack)));
+    }
+
+    JsonStateMachine state = JsonStateMachine.INITIALIZATION;
+    boolean firstCharacter = true;
+    Status status = Status.EMPTY;
+    for (int chunk = 0; chunk < chunkCount; chunk++) {
+      Exit exit = select(validationTasks.get(chunk).join(), startsInString[chunk], state,
+              firstCharacter);
+      if (exit == null) {
+        return Status.INVALID;
+      }
+      state = exit.state;
+      firstCharacter = exit.firstCharacter;
+      status = exit.status;
+    }
+    return status;
+  }
+
+  /**
+   * Reduces the braces and brackets of a chunk, once assuming it starts outside a string
+   * and once assuming it starts inside one.
+   *
+   * @param input the document
+   * @param start index of the first character of the chunk
+   * @param end   index after the last character of the chunk
+   * @return the reductions for starting outside and inside a string, in that order
+   */
+  private static Reduction[] reduce(CharSequence input, int start, int end) {
+    Reduction outside = new Reduction();
+    Reduction inside = new Reduction();
+    boolean inString = false;
+    for (int i = start; i < end; i++) {
+      char c = input.charAt(i);
+      if (c == '"') {
+        inString = !inString;
+      } else if (c == '{' || c == '}' || c == '[' || c == ']') {
+        (inString ? inside : outside).add(c);
+      }
+    }
+    outside.endsInString = inString;
+    inside.endsInString = !inString;
+    return new Reduction[] {outside, inside};
+  }
+
+  /**
+   * Validates a chunk from every state it could start in.
+   *
+   * @param input      the document
+   * @param start      index of the first character of the chunk
+   * @param end        index after the last character of the chunk
+   * @param inString   whether the chunk starts inside a string
+   * @param entryStack the objects and arrays open at the start of the chunk
+   * @return the exit of each candidate start state, null where the chunk was invalid
+   */
+  private static Exit[] speculate(CharSequence input, int start, int end, boolean inString,
+                                  NestingStack entryStack) {
+    JsonStateMachine[] candidates = inString ? INSIDE_STRING : OUTSIDE_STRING;
+    CharSequence chunk = CharBuffer.wrap(input, start, end);
+    Exit[] exits = new Exit[candidates.length];
+    for (int i = 0; i < candidates.length; i++) {
+      boolean firstCharacter = !inString || INSIDE_STRING_FIRST_CHARACTER[i];
+      JsonValidator validator = new JsonValidator(candidates[i], firstCharacter,
+              entryStack.copy(), statusOf(candidates[i]));
+      if (validator.input(chunk) == chunk.length()) {
+        exits[i] = new Exit(validator.state(), validator.isFirstCharacter(), validator.status());
+      }
+    }
+    return exits;
+  }
+
+  /**
+   * Picks the exit of the candidate that started where the previous chunk ended.
+   *
+   * @param exits          the exits of all candidates of the chunk
+   * @param inString       whether the chunk starts inside a string
+   * @param state          the exit state of the previous chunk
+   * @param firstCharacter the exit first character flag of the previous chunk
+   * @return the matching exit, or null if the chunk is invalid from that state
+   */
+  private static Exit select(Exit[] exits, boolean inString, JsonStateMachine state,
+                             boolean firstCharacter) {
+    JsonStateMachine[] candidates = inString ? INSIDE_STRING : OUTSIDE_STRING;
+    for (int i = 0; i < candidates.length; i++) {
+      boolean candidateFirst = !inString || INSIDE_STRING_FIRST_CHARACTER[i];
+      boolean matchesFirst = !state.isKeyProcessing() || candidateFirst == firstCharacter;
+      if (candidates[i] == state && matchesFirst) {
+        return exits[i];
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Returns the status a validator has while in a state.
+   *
+   * @param state the state
+   * @return Empty before the document starts, Valid after it ends, Incomplete otherwise
+   */
+  private static Status statusOf(JsonStateMachine state) {
+    switch (state) {
+      case INITIALIZATION:
+        return Status.EMPTY;
+      case END:
+        return Status.VALID;
+      default:
+        return Status.INCOMPLETE;
+    }
+  }
+
+  /**
+   * The braces and brackets of a chunk with all matching pairs removed.
+   * What remains is a sequence of closers that match openers of earlier chunks,
+   * followed by openers that later chunks close.
+   */
+  private static final class Reduction {
+    private final NestingStack closers = new NestingStack();
+    private final NestingStack openers = new NestingStack();
+    private boolean mismatched;
+    private boolean endsInString;
+
+    /**
+     * Adds a brace or bracket found outside a string.
+     *
+     * @param c the brace or bracket
+     */
+    private void add(char c) {
+      boolean array = c == '[' || c == ']';
+      if (c == '{' || c == '[') {
+        push(openers, array);
+      } else if (openers.isEmpty()) {
+        push(closers, array);
+      } else if (openers.isArrayOnTop() == array) {
+        openers.pop();
+      } else {
+        mismatched = true;
+      }
+    }
+
+    /**
+     * Closes the matching openers of the stack and pushes the remaining openers onto it.
+     *
+     * @param stack the nesting stack at the start of the chunk, updated to its end
+     * @return false if a closer does not match the stack
+     */
+    private boolean apply(NestingStack stack) {
+      if (mismatched) {
+        return false;
+      }
+      for (int i = 0; i < closers.depth(); i++) {
+        if (stack.isEmpty() || stack.isArrayOnTop() != closers.isArrayAt(i)) {
+          return false;
+        }
+        stack.pop();
+      }
+      for (int i = 0; i < openers.depth(); i++) {
+        push(stack, openers.isArrayAt(i));
+      }
+      return true;
+    }
+
+    /**
+     * Pushes an object or array level.
+     *
+     * @param stack the stack to push onto
+     * @param array true for an array, false for an object
+     */
+    private static void push(NestingStack stack, boolean array) {
+      if (array) {
+        stack.pushArray();
+      } else {
+        stack.pushObject();
+      }
+    }
+  }
+
+  /**
+   * Where a candidate run through a chunk ended.
+   */
+  private static final class Exit {
+    private final JsonStateMachine state;
+    private final boolean firstCharacter;
+    private final Status status;
+
+    /**
+     * Records the end of a candidate run.
+     *
+     * @param state          the state after the chunk
+     * @param firstCharacter whether a key being read has no characters yet
+     * @param status         the status after the chunk
+     */
+    private Exit(JsonStateMachine state, boolean firstCharacter, Status status) {
+      this.state = state;
+      this.firstCharacter = firstCharacter;
+      this.status = status;
+    }
+  }
+}
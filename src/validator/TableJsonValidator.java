@@ -0,0 +1,254 @@
+package validator;
+
+import java.io.DataInput;
+import java.util.Objects;
+
+import parser.AbstractJsonParser;
+import parser.InvalidJsonException;
+import parser.JsonParser;
+
+import static validator.JsonTransitionTable.ACTION_SHIFT;
+import static validator.JsonTransitionTable.CLASS_COUNT;
+import static validator.JsonTransitionTable.CLOSE_ARRAY;
+import static validator.JsonTransitionTable.CLOSE_OBJECT;
+import static validator.JsonTransitionTable.END;
+import static validator.JsonTransitionTable.EXPECT_KEY;
+import static validator.JsonTransitionTable.EXPECT_VALUE_OR_NESTED_OBJECT;
+import static validator.JsonTransitionTable.FINAL_STAGE;
+import static validator.JsonTransitionTable.INITIALIZATION;
+import static validator.JsonTransitionTable.KEY_REST;
+import static validator.JsonTransitionTable.NEXT_ELEMENT;
+import static validator.JsonTransitionTable.NONE;
+import static validator.JsonTransitionTable.PUSH_ARRAY;
+import static validator.JsonTransitionTable.PUSH_OBJECT;
+import static validator.JsonTransitionTable.STATE_MASK;
+import static validator.JsonTransitionTable.TRANSITIONS;
+
+/**
+ * TableJsonValidator is a table-driven implementation of the JsonParser interface.
+ * It accepts the same grammar and reports the same status and error messages as JsonValidator,
+ * but each character costs one class lookup and one transition table lookup instead of a
+ * switch over the state and a handler method call.
+ * Only braces, brackets and commas need the nesting stack and leave the table lookup.
+ */
+public class TableJsonValidator extends AbstractJsonParser<String> {
+
+  private int state;
+
+  /**
+   * Initializes a new table-driven validator in the initial state.
+   */
+  public TableJsonValidator() {
+    state = INITIALIZATION;
+  }
+
+  /**
+   * Returns the validator to the initial state so that it can read another document.
+   */
+  @Override
+  public void reset() {
+    super.reset();
+    state = INITIALIZATION;
+  }
+
+  /**
+   * Derives the table state from the restored state machine fields.
+   *
+   * @param in the checkpoint being read
+   * @return the action deriving the table state
+   */
+  @Override
+  protected Runnable readCheckpoint(DataInput in) {
+    return () -> state = JsonTransitionTable.tableStateOf(currentState, firstCharacter);
+  }
+
+  /**
+   * Accept a single character as input, and return the new parser object as a result.
+   * Whitespace handling is part of the transition table.
+   *
+   * @param c the input character
+   * @return the parser after handling the provided character
+   * @throws InvalidJsonException if the input causes the JSON to be invalid
+   */
+  @Override
+  public JsonParser<String> input(char c) throws InvalidJsonException {
+    if (isInvalid()) {
+      return this;
+    }
+    processStateMachine(c);
+    return this;
+  }
+
+  /**
+   * Accept a range of characters as input, running the transition table in a tight loop.
+   *
+   * @param chars  the input characters
+   * @param offset index of the first character to process
+   * @param length number of characters to process
+   * @return the number of characters consumed, less than length if the input became invalid
+   */
+  @Override
+  public int input(char[] chars, int offset, int length) {
+    Objects.checkFromIndexSize(offset, length, chars.length);
+    if (isInvalid()) {
+      return 0;
+    }
+    int current = state;
+    int end = offset + length;
+    int i = offset;
+    try {
+      for (; i < end; i++) {
+        int entry = TRANSITIONS[current * CLASS_COUNT + JsonTransitionTable.classOf(chars[i])];
+        int action = entry >>> ACTION_SHIFT;
+        if (action == NONE) {
+          current = entry & STATE_MASK;
+        } else {
+          current = applyAction(current, action);
+          if (current == END && stopAtEnd) {
+            return i + 1 - offset;
+          }
+        }
+      }
+    } catch (InvalidJsonException e) {
+      return i - offset;
+    } finally {
+      setState(current);
+    }
+    return length;
+  }
+
+  /**
+   * Accept a sequence of characters as input, running the transition table in a tight loop.
+   *
+   * @param chars the input characters
+   * @return the number of characters consumed, less than its length if the input became invalid
+   */
+  @Override
+  public int input(CharSequence chars) {
+    if (isInvalid()) {
+      return 0;
+    }
+    int current = state;
+    int length = chars.length();
+    int i = 0;
+    try {
+      for (; i < length; i++) {
+        int entry = TRANSITIONS[current * CLASS_COUNT + JsonTransitionTable.classOf(chars.charAt(i))];
+        int action = entry >>> ACTION_SHIFT;
+        if (action == NONE) {
+          current = entry & STATE_MASK;
+        } else {
+          current = applyAction(current, action);
+          if (current == END && stopAtEnd) {
+            return i + 1;
+          }
+        }
+      }
+    } catch (InvalidJsonException e) {
+      return i;
+    } finally {
+      setState(current);
+    }
+    return length;
+  }
+
+  /**
+   * Provide the output of the parser, given all the inputs it has been provided so far.
+   *
+   * @return currentStatus the output of the parser
+   */
+  @Override
+  public String output() {
+    return currentStatus.toString();
+  }
+
+  /**
+   * Looks up the transition for a single character and applies it.
+   *
+   * @param c The character to be processed
+   * @throws InvalidJsonException if the character is invalid for the current state
+   */
+  @Override
+  protected void processStateMachine(char c) throws InvalidJsonException {
+    int entry = TRANSITIONS[state * CLASS_COUNT + JsonTransitionTable.classOf(c)];
+    int action = entry >>> ACTION_SHIFT;
+    setState(action == NONE ? entry & STATE_MASK : applyAction(state, action));
+  }
+
+  /**
+   * Throws an InvalidJsonException with a custom message.
+   * Updates the status to INVALID.
+   *
+   * @throws InvalidJsonException always throws an invalid json exception
+   */
+  @Override
+  protected void throwInvalidJson(String message) throws InvalidJsonException {
+    currentStatus = Status.INVALID;
+    throw new InvalidJsonException("Error: " + message + "State :" + currentState.getDescription());
+  }
+
+  /**
+   * Performs the stack action of a transition and computes the next state.
+   * Closing braces, brackets and commas depend on the top of the nesting stack.
+   *
+   * @param current the table state before the character
+   * @param action  the action stored in the transition entry
+   * @return the next table state
+   * @throws InvalidJsonException if the character is invalid for the current state
+   */
+  private int applyAction(int current, int action) throws InvalidJsonException {
+    switch (action) {
+      case PUSH_OBJECT:
+        nestingStack.pushObject();
+        currentStatus = Status.INCOMPLETE;
+        return EXPECT_KEY;
+      case PUSH_ARRAY:
+        nestingStack.pushArray();
+        return EXPECT_VALUE_OR_NESTED_OBJECT;
+      case CLOSE_OBJECT:
+        if (!nestingStack.isObjectOnTop()) {
+          fail(current, "error in closing json with }");
+        }
+        nestingStack.pop();
+        if (nestingStack.isEmpty()) {
+          currentStatus = Status.VALID;
+          return END;
+        }
+        return FINAL_STAGE;
+      case CLOSE_ARRAY:
+        if (!nestingStack.isArrayOnTop()) {
+          fail(current, "error in closing array with ]");
+        }
+        nestingStack.pop();
+        return FINAL_STAGE;
+      case NEXT_ELEMENT:
+        return !nestingStack.isArrayOnTop() ? EXPECT_KEY : EXPECT_VALUE_OR_NESTED_OBJECT;
+      default:
+        fail(current, JsonTransitionTable.errorMessage(current));
+        return current;
+    }
+  }
+
+  /**
+   * Records the state the error happened in and throws.
+   *
+   * @param current the table state before the character
+   * @param message the error message
+   * @throws InvalidJsonException always
+   */
+  private void fail(int current, String message) throws InvalidJsonException {
+    setState(current);
+    throwInvalidJson(message);
+  }
+
+  /**
+   * Stores the table state and keeps the shared state machine fields in sync with it.
+   *
+   * @param next the new table state
+   */
+  private void setState(int next) {
+    state = next;
+    currentState = JsonTransitionTable.stateOf(next);
+    firstCharacter = next != KEY_REST;
+  }
+}
@@ -0,0 +1,30 @@
+package validator;
+
+import parser.AbstractJsonParser;
+
+/**
+ * The available validator implementations.
+ * Both accept the same grammar and produce the same status, they only differ in how
+ * the state machine is executed.
+ */
+public enum ValidatorEngine {
+  STATE_MACHINE {
+    @Override
+    public AbstractJsonParser<String> create() {
+      return new JsonValidator();
+    }
+  },
+  TRANSITION_TABLE {
+    @Override
+    public AbstractJsonParser<String> create() {
+      return new TableJsonValidator();
+    }
+  };
+
+  /**
+   * Creates a new validator using this engine.
+   *
+   * @return a validator in its initial state
+   */
+  public abstract AbstractJsonParser<String> create();
+}
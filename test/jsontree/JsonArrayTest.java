@@ -1,5 +1,8 @@
 package jsontree;
 
+import java.util.HashSet;
+import java.util.Set;
+
 import org.junit.Before;
 import org.junit.Test;
 
@@ -169,7 +172,7 @@ public class JsonArrayTest {
     assertEquals(a1.equals(a2), a2.equals(a3));
 
     // Array Hashcode
-    assertEquals(69609651, a1.hashCode());
+    assertEquals(1290767667, a1.hashCode());
     assertEquals(a1.hashCode(), a1.hashCode());
     assertEquals(a1.hashCode(), a2.hashCode());
     assertEquals(a1.hashCode() == a2.hashCode(),
@@ -233,4 +236,97 @@ public class JsonArrayTest {
             a1.prettyPrint() != a2.prettyPrint());
 
   }
-}
\ No newline at end of file
+
+  @Test
+  public void fingerprintDependsOnOrder() {
+    IJsonArray ab = new JsonArray();
+    ab.add(new JsonString("a"));
+    ab.add(new JsonString("b"));
+    IJsonArray ba = new JsonArray();
+    ba.add(new JsonString("b"));
+    ba.add(new JsonString("a"));
+    assertNotEquals(ab.fingerprint(), ba.fingerprint());
+    assertNotEquals(ab.hashCode(), ba.hashCode());
+    assertEquals(false, ab.equals(ba));
+  }
+
+  @Test
+  public void fingerprintClearedUpwardOnAdd() {
+    IJsonArray shared = new JsonArray();
+    shared.add(new JsonString("x"));
+    IJsonArray first = new JsonArray();
+    first.add(shared);
+    IJsonObject second = new JsonObject();
+    second.add("list", shared);
+    IJsonArray root = new JsonArray();
+    root.add(first);
+
+    long rootBefore = root.fingerprint();
+    long secondBefore = second.fingerprint();
+    shared.add(new JsonString("y"));
+    assertNotEquals(rootBefore, root.fingerprint());
+    assertNotEquals(secondBefore, second.fingerprint());
+
+    IJsonArray expectedShared = new JsonArray();
+    expectedShared.add(new JsonString("x"));
+    expectedShared.add(new JsonString("y"));
+    IJsonArray expectedFirst = new JsonArray();
+    expectedFirst.add(expectedShared);
+    IJsonArray expectedRoot = new JsonArray();
+    expectedRoot.add(expectedFirst);
+    assertEquals(expectedRoot.fingerprint(), root.fingerprint());
+    assertEquals(expectedRoot, root);
+  }
+
+  @Test
+  public void nodeKeepsAtMostOneContainer() {
+    JsonString shared = new JsonString("x");
+    assertEquals(null, shared.container());
+    IJsonArray first = new JsonArray();
+    first.add(shared);
+    assertEquals(true, shared.container() == first);
+
+    IJsonArray second = new JsonArray();
+    second.add(shared);
+    assertEquals(null, shared.container());
+    for (int i = 0; i < 1000; i++) {
+      new JsonArray().add(shared);
+    }
+    assertEquals(null, shared.container());
+
+    IJsonArray expected = new JsonArray();
+    expected.add(new JsonString("x"));
+    assertEquals(expected.fingerprint(), first.fingerprint());
+    assertEquals(expected, second);
+  }
+
+  @Test
+  public void elementAccess() {
+    assertEquals(3, arrayWith3Values.size());
+    assertEquals(new JsonString("1"), arrayWith3Values.get(0));
+    int count = 0;
+    for (JsonNode element : arrayWith3Values) {
+      assertEquals(arrayWith3Values.get(count++), element);
+    }
+    assertEquals(3, count);
+    assertEquals(0, new JsonArray().size());
+  }
+
+  @Test
+  public void arraysAsHashKeys() {
+    Set<JsonNode> set = new HashSet<>();
+    for (int i = 0; i < 100; i++) {
+      for (int j = 0; j < 100; j++) {
+        IJsonArray pair = new JsonArray();
+        pair.add(new JsonString("v" + i));
+        pair.add(new JsonString("v" + j));
+        set.add(pair);
+      }
+    }
+    assertEquals(10000, set.size());
+    IJsonArray pair = new JsonArray();
+    pair.add(new JsonString("v7"));
+    pair.add(new JsonString("v3"));
+    assertEquals(true, set.contains(pair));
+  }
+}
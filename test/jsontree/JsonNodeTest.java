@@ -0,0 +1,126 @@
+package jsontree;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import parser.JsonParser;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Test cases for writing a JsonNode with writeTo.
+ * The PRETTY style is compared with prettyPrint of the same tree.
+ */
+public class JsonNodeTest {
+  private static final String[] DOCUMENTS = {
+    "{ \"a\" : \"b\" }",
+    "{ \"list\" : [ ], \"empty\" : \"\" }",
+    "{ \"a\" : [ \"x\", [ \"y\", { \"b\" : \"c\" } ], ], \"d\" : { \"e\" : { \"f\" : \"g\" } } }",
+    "{ \"k\" : [ [ [ \"deep\" ] ] ], \"z\" : \"caf\u00e9\" }"
+  };
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  /**
+   * Builds the tree of a document.
+   *
+   * @param json the document
+   * @return the root node
+   */
+  private static JsonNode tree(String json) {
+    JsonParser<JsonNode> builder = new JsonTreeBuilder();
+    builder.input(json);
+    return builder.output();
+  }
+
+  @Test
+  public void prettyMatchesPrettyPrint() throws IOException {
+    for (String json : DOCUMENTS) {
+      JsonNode root = tree(json);
+      StringBuilder out = new StringBuilder();
+      root.writeTo(out, JsonStyle.PRETTY);
+      assertEquals(json, root.prettyPrint(), out.toString());
+      assertEquals(json, root.prettyPrint(), root.toString(JsonStyle.PRETTY));
+    }
+  }
+
+  @Test
+  public void prettyMatchesForDeepNesting() {
+    StringBuilder json = new StringBuilder("{ \"a\" : ");
+    for (int i = 0; i < 100; i++) {
+      json.append("[");
+    }
+    json.append("\"v\"");
+    for (int i = 0; i < 100; i++) {
+      json.append("]");
+    }
+    json.append(" }");
+    JsonNode root = tree(json.toString());
+    assertEquals(root.prettyPrint(), root.toString(JsonStyle.PRETTY));
+  }
+
+  @Test
+  public void prettyMatchesForBuiltTree() {
+    IJsonArray array = new JsonArray();
+    array.add(new JsonString("1"));
+    IJsonObject inner = new JsonObject();
+    inner.add("x", new JsonString("y"));
+    array.add(inner);
+    IJsonObject root = new JsonObject();
+    root.add("array", array);
+    root.add("text", new JsonString("t"));
+    assertEquals(root.prettyPrint(), root.toString(JsonStyle.PRETTY));
+    assertEquals("{\n}", new JsonObject().toString(JsonStyle.PRETTY));
+    assertEquals("[\n]", new JsonArray().toString(JsonStyle.PRETTY));
+    assertEquals("\"s\"", new JsonString("s").toString(JsonStyle.PRETTY));
+  }
+
+  @Test
+  public void compact() {
+    assertEquals("{\"a\":[\"x\",[\"y\",{\"b\":\"c\"}]],\"d\":{\"e\":{\"f\":\"g\"}}}",
+            tree(DOCUMENTS[2]).toString(JsonStyle.COMPACT));
+    assertEquals("{\"list\":[],\"empty\":\"\"}", tree(DOCUMENTS[1]).toString(JsonStyle.COMPACT));
+    assertEquals("{}", new JsonObject().toString(JsonStyle.COMPACT));
+  }
+
+  @Test
+  public void compactParsesToSameTree() {
+    for (String json : DOCUMENTS) {
+      JsonNode root = tree(json);
+      assertEquals(json, root, tree(root.toString(JsonStyle.COMPACT)));
+    }
+  }
+
+  @Test
+  public void writeToFile() throws IOException {
+    JsonNode root = tree(DOCUMENTS[2]);
+    Path file = folder.newFile("out.json").toPath();
+    try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+      root.writeTo(writer, JsonStyle.PRETTY);
+    }
+    assertEquals(root.prettyPrint(), new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void tapeAndLazyStringsWriteTheSame() {
+    for (String json : DOCUMENTS) {
+      JsonNode root = tree(json);
+      IJsonObject tapeRoot = JsonTape.parse(json).root();
+      JsonTreeBuilder lazy = new JsonTreeBuilder();
+      lazy.setLazyStrings(true);
+      lazy.input(json);
+      for (JsonStyle style : JsonStyle.values()) {
+        assertEquals(json, root.toString(style), tapeRoot.toString(style));
+        assertEquals(json, root.toString(style), lazy.output().toString(style));
+      }
+    }
+  }
+}
@@ -1,5 +1,10 @@
 package jsontree;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
 import org.junit.Before;
 import org.junit.Test;
 
@@ -168,7 +173,7 @@ public class JsonObjectTest {
     assertEquals(o2.equals(o1), o2.equals(o3));
 
     // Check HashCode
-    assertEquals(2058492349, o1.hashCode());
+    assertEquals(406072941, o1.hashCode());
     assertEquals(o1.hashCode(), o1.hashCode());
     assertEquals(o1.hashCode(), o2.hashCode());
     assertEquals(o1.hashCode() == o2.hashCode(),
@@ -302,4 +307,122 @@ public class JsonObjectTest {
     assertEquals(false, complexObj1.equals(arrayOfaraaysAndObjects));
   }
 
-}
\ No newline at end of file
+  @Test
+  public void getSmallObject() {
+    assertEquals(arrayWith3Values, object.get("KEY"));
+    assertEquals(true, object.containsKey("KEY"));
+    assertEquals(null, object.get("key"));
+    assertEquals(false, object.containsKey("missing"));
+  }
+
+  @Test
+  public void getLargeObject() {
+    IJsonObject large = new JsonObject();
+    for (int i = 0; i < 1000; i++) {
+      large.add("key" + i, new JsonString("value" + i));
+      if (i == 20) {
+        assertEquals(new JsonString("value7"), large.get("key7"));
+      }
+    }
+    for (int i = 0; i < 1000; i++) {
+      assertEquals(new JsonString("value" + i), large.get("key" + i));
+    }
+    assertEquals(null, large.get("key1000"));
+    large.add("key5", new JsonString("again"));
+    assertEquals(new JsonString("again"), large.get("key5"));
+    assertEquals(false, large.containsKey("other"));
+  }
+
+  @Test
+  public void mapView() {
+    IJsonObject small = new JsonObject();
+    small.add("b", new JsonString("1"));
+    small.add("a", new JsonString("2"));
+    small.add("b", new JsonString("3"));
+    Map<String, JsonNode> map = small.asMap();
+    assertEquals(2, map.size());
+    assertEquals(new JsonString("3"), map.get("b"));
+    assertEquals(true, map.containsKey("a"));
+    assertEquals(false, map.containsKey(1));
+    assertEquals(Arrays.asList("a", "b"), new ArrayList<>(map.keySet()));
+
+    small.add("c", new JsonString("4"));
+    assertEquals(3, map.size());
+    assertEquals(new JsonString("4"), map.get("c"));
+  }
+
+  @Test
+  public void mapViewOfLargeObject() {
+    IJsonObject large = new JsonObject();
+    List<String> keys = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      large.add("key" + i, new JsonString("value" + i));
+      keys.add("key" + i);
+    }
+    Map<String, JsonNode> map = large.asMap();
+    assertEquals(100, map.size());
+    assertEquals(keys, new ArrayList<>(map.keySet()));
+    assertEquals(new JsonString("value42"), map.get("key42"));
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void mapViewIsReadOnly() {
+    object.asMap().put("other", stringValue);
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void mapViewEntriesAreReadOnly() {
+    object.asMap().entrySet().iterator().next().setValue(stringValue);
+  }
+
+  @Test
+  public void prettyPrintKeepsOrderWithIndex() {
+    IJsonObject large = new JsonObject();
+    StringBuilder expected = new StringBuilder("{\n");
+    for (int i = 20; i > 0; i--) {
+      large.add("k" + i, new JsonString("v"));
+      expected.append("  \"k").append(i).append("\":\"v\"").append(i > 1 ? ",\n" : "\n");
+    }
+    expected.append("}");
+    large.get("k3");
+    large.add("k0", new JsonString("v"));
+    assertEquals(expected.toString().replace("\"k1\":\"v\"\n", "\"k1\":\"v\",\n  \"k0\":\"v\"\n"),
+            large.prettyPrint());
+  }
+
+  @Test
+  public void wideObjectsInDifferentOrder() {
+    IJsonObject forward = new JsonObject();
+    IJsonObject backward = new JsonObject();
+    int size = 50000;
+    for (int i = 0; i < size; i++) {
+      forward.add("key" + i, new JsonString("value" + i));
+      backward.add("key" + (size - 1 - i), new JsonString("value" + (size - 1 - i)));
+    }
+    assertEquals(true, forward.equals(backward));
+    assertEquals(true, backward.equals(forward));
+
+    backward.add("key0", new JsonString("extra"));
+    forward.add("key1", new JsonString("extra"));
+    assertEquals(false, forward.equals(backward));
+  }
+
+  @Test
+  public void repeatedKeysMatchAsMultiset() {
+    IJsonObject first = new JsonObject();
+    first.add("a", new JsonString("1"));
+    first.add("a", new JsonString("2"));
+    first.add("a", new JsonString("1"));
+    IJsonObject second = new JsonObject();
+    second.add("a", new JsonString("1"));
+    second.add("a", new JsonString("1"));
+    second.add("a", new JsonString("2"));
+    IJsonObject third = new JsonObject();
+    third.add("a", new JsonString("2"));
+    third.add("a", new JsonString("2"));
+    third.add("a", new JsonString("1"));
+    assertEquals(true, first.equals(second));
+    assertEquals(false, first.equals(third));
+    assertEquals(false, third.equals(second));
+  }
+}
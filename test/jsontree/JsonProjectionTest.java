@@ -0,0 +1,57 @@
+package jsontree;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Junit test class for JsonProjection class.
+ * Tests path parsing and key lookup in the trie.
+ */
+public class JsonProjectionTest {
+
+  @Test
+  public void lookupKeys() {
+    JsonProjection root = JsonProjection.of("/payload/user/name", "/payload/id", "/all");
+    JsonProjection payload = root.child(new StringBuilder("payload"));
+    assertEquals(false, payload.includesAll());
+    assertEquals(null, root.child("pay"));
+    assertEquals(null, root.child("payloads"));
+    assertEquals(true, payload.child("id").includesAll());
+    assertEquals(true, payload.child("user").child("name").includesAll());
+    assertEquals(null, payload.child("user").child("email"));
+
+    JsonProjection all = root.child("all");
+    assertSame(all, all.child("anything"));
+  }
+
+  @Test
+  public void prefixPathSelectsAll() {
+    JsonProjection root = JsonProjection.of("/a/b", "/a");
+    assertEquals(true, root.child("a").includesAll());
+  }
+
+  @Test
+  public void nodesById() {
+    JsonProjection root = JsonProjection.of("/a/b", "/c");
+    JsonProjection b = root.child("a").child("b");
+    assertSame(b, root.node(b.id()));
+    assertSame(root, b.node(0));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void pathWithoutSlash() {
+    JsonProjection.of("a/b");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void pathWithEmptyKey() {
+    JsonProjection.of("/a//b");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void rootPath() {
+    JsonProjection.of("/");
+  }
+}
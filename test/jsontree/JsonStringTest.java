@@ -1,5 +1,7 @@
 package jsontree;
 
+import java.nio.ByteBuffer;
+
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
@@ -185,5 +187,29 @@ public class JsonStringTest {
 
   }
 
+  @Test
+  public void lazyStringMatchesString() {
+    String source = "xx\"hello world\"yy";
+    JsonString lazy = new LazyJsonString(source, 3, 11);
+    JsonString plain = new JsonString("hello world");
+    assertEquals(plain, lazy);
+    assertEquals(lazy, plain);
+    assertEquals(lazy, new LazyJsonString("hello world", 0, 11));
+    assertEquals(plain.hashCode(), lazy.hashCode());
+    assertEquals(plain.prettyPrint(), lazy.prettyPrint());
+    assertEquals("hello world", lazy.value());
+    assertEquals(plain, lazy);
+    assertNotEquals(new JsonString("hello"), lazy);
+    assertNotEquals(new LazyJsonString(source, 3, 10), lazy);
+  }
 
-}
\ No newline at end of file
+  @Test
+  public void lazyStringOverBytes() {
+    ByteBuffer bytes = ByteBuffer.wrap("ab\"cd\"".getBytes());
+    JsonString lazy = new LazyJsonString(new AsciiBytes(bytes), 3, 2);
+    bytes.limit(1);
+    assertEquals(new JsonString("cd"), lazy);
+    assertEquals("\"cd\"", lazy.prettyPrint());
+    assertEquals("cd", lazy.value());
+  }
+}
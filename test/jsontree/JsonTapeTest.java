@@ -0,0 +1,199 @@
+package jsontree;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Iterator;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import parser.JsonParser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+/**
+ * Test cases for JsonTape.
+ * The tape views are compared with the tree JsonTreeBuilder builds for the same document.
+ */
+public class JsonTapeTest {
+  private static final String JSON = "{ \"name\" : \"tape\", \"list\" : [ \"a\", [\"b\", \"c\"],"
+          + " { \"x\" : \"1\", \"y\" : [] }, ], \"nested\" : { \"k\" : \"caf\u00e9\" } }";
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  /**
+   * Builds the regular tree of a document.
+   *
+   * @param json the document
+   * @return the root node
+   */
+  private static JsonNode tree(String json) {
+    JsonParser<JsonNode> builder = new JsonTreeBuilder();
+    builder.input(json);
+    return builder.output();
+  }
+
+  @Test
+  public void prettyPrintMatchesTree() {
+    JsonTape tape = JsonTape.parse(JSON);
+    assertEquals(tree(JSON).prettyPrint(), tape.root().prettyPrint());
+    assertEquals(tree(JSON).prettyPrint(), tape.toTree().prettyPrint());
+  }
+
+  @Test
+  public void hashCodeMatchesTree() {
+    JsonTape tape = JsonTape.parse(JSON);
+    assertEquals(tree(JSON).hashCode(), tape.root().hashCode());
+    assertEquals(tree(JSON).fingerprint(), tape.root().fingerprint());
+  }
+
+  @Test
+  public void equalsTreeBothWays() {
+    JsonTape tape = JsonTape.parse(JSON);
+    assertEquals(true, tape.root().equals(tree(JSON)));
+    assertEquals(true, tree(JSON).equals(tape.root()));
+    assertEquals(true, tape.root().equals(JsonTape.parse(JSON).root()));
+    assertEquals(tree(JSON), tape.toTree());
+
+    String reordered = "{ \"nested\" : { \"k\" : \"caf\u00e9\" }, \"name\" : \"tape\","
+            + " \"list\" : [ \"a\", [\"b\", \"c\"], { \"y\" : [], \"x\" : \"1\" } ] }";
+    assertEquals(true, tape.root().equals(JsonTape.parse(reordered).root()));
+
+    String changed = JSON.replace("\"c\"", "\"d\"");
+    assertEquals(false, tape.root().equals(JsonTape.parse(changed).root()));
+    assertEquals(false, tree(changed).equals(tape.root()));
+    assertNotEquals(tape.root().hashCode(), JsonTape.parse(changed).root().hashCode());
+  }
+
+  @Test
+  public void arrayComparesWithForeignArray() {
+    IJsonArray other = new IJsonArray() {
+      @Override
+      public void add(JsonNode value) {
+      }
+
+      @Override
+      public int size() {
+        return 0;
+      }
+
+      @Override
+      public JsonNode get(int index) {
+        throw new IndexOutOfBoundsException();
+      }
+
+      @Override
+      public Iterator<JsonNode> iterator() {
+        return Collections.emptyIterator();
+      }
+
+      @Override
+      public String prettyPrint() {
+        return "[\n]";
+      }
+
+      @Override
+      protected long computeFingerprint() {
+        return new JsonArray().fingerprint();
+      }
+
+      @Override
+      protected void write(Appendable out, JsonStyle style, int depth) {
+      }
+    };
+    assertEquals(false, new JsonArray().equals(other));
+  }
+
+  @Test
+  public void invalidDocument() {
+    assertEquals(null, JsonTape.parse("{ \"a\" : \"b\" "));
+    assertEquals(null, JsonTape.parse("{ \"1\" : \"b\" }"));
+    assertEquals(null, JsonTape.parse(""));
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void viewsAreReadOnly() {
+    JsonTape.parse(JSON).root().add("k", new JsonString("v"));
+  }
+
+  @Test
+  public void compactLayout() {
+    JsonTape tape = JsonTape.parse("{ \"ab\" : \"cde\", \"f\" : [\"\"] }");
+    assertEquals(8, tape.tapeLength());
+    assertEquals(2 + 2 + 2 + 3 + 2 + 1 + 2, tape.poolLength());
+    assertEquals(JsonTape.OBJECT_START, tape.type(0));
+    assertEquals(8, tape.next(0));
+    assertEquals(7, tape.next(4));
+    assertEquals("cde", tape.text(2).toString());
+    assertEquals("", tape.text(5).toString());
+  }
+
+  @Test
+  public void parseFile() throws IOException {
+    Path file = folder.newFile("tape.json").toPath();
+    Files.write(file, JSON.getBytes(StandardCharsets.UTF_8));
+    JsonTape tape = JsonTape.parse(file);
+    assertEquals(tree(JSON), tape.root());
+    assertEquals(tree(JSON).prettyPrint(), tape.root().prettyPrint());
+  }
+
+  @Test
+  public void lookupKeys() {
+    IJsonObject root = JsonTape.parse(JSON).root();
+    assertEquals(new JsonString("tape"), root.get("name"));
+    assertEquals(true, root.containsKey("list"));
+    assertEquals(false, root.containsKey("missing"));
+    assertEquals(null, root.get("nam"));
+    IJsonObject nested = (IJsonObject) root.get("nested");
+    assertEquals(new JsonString("caf\u00e9"), nested.get("k"));
+    assertEquals(((IJsonObject) tree(JSON)).asMap(), root.asMap());
+  }
+
+  @Test
+  public void lastDuplicateKeyWins() {
+    IJsonObject root = JsonTape.parse("{ \"a\" : \"1\", \"b\" : \"2\", \"a\" : [\"3\"] }").root();
+    JsonArray expected = new JsonArray();
+    expected.add(new JsonString("3"));
+    assertEquals(expected, root.get("a"));
+    assertEquals(2, root.asMap().size());
+    assertEquals("[b, a]", root.asMap().keySet().toString());
+  }
+
+  @Test
+  public void arrayElementAccess() {
+    IJsonArray list = (IJsonArray) JsonTape.parse(JSON).root().get("list");
+    IJsonArray expected = (IJsonArray) ((IJsonObject) tree(JSON)).get("list");
+    assertEquals(3, list.size());
+    for (int i = 0; i < list.size(); i++) {
+      assertEquals(expected.get(i), list.get(i));
+    }
+    Iterator<JsonNode> elements = expected.iterator();
+    for (JsonNode element : list) {
+      assertEquals(elements.next(), element);
+    }
+    assertEquals(false, elements.hasNext());
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void arrayElementOutOfRange() {
+    ((IJsonArray) JsonTape.parse(JSON).root().get("list")).get(3);
+  }
+
+  @Test
+  public void duplicateKeysCompareAsPairs() {
+    JsonTape first = JsonTape.parse("{ \"a\" : \"1\", \"b\" : [\"x\"], \"a\" : \"2\" }");
+    JsonTape second = JsonTape.parse("{ \"a\" : \"2\", \"a\" : \"1\", \"b\" : [\"x\"] }");
+    assertEquals(true, first.root().equals(second.root()));
+    String reordered = "{ \"a\" : \"2\", \"b\" : [\"x\"], \"a\" : \"1\" }";
+    assertEquals(true, first.root().equals(tree(reordered)));
+    JsonTape third = JsonTape.parse("{ \"a\" : \"1\", \"b\" : [\"x\"], \"a\" : \"1\" }");
+    assertEquals(false, first.root().equals(third.root()));
+    assertEquals(false, first.root().equals(third.toTree()));
+  }
+}
@@ -1,12 +1,23 @@
 package jsontree;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import parser.InvalidJsonException;
 import parser.JsonParser;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.fail;
 
 /**
  * Test case for JsonTreeBuilder class.
@@ -17,6 +28,9 @@ import static org.junit.Assert.assertNotEquals;
  */
 public class JsonTreeBuilderTest {
 
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
   @Test
   public void invalidKey() throws InvalidJsonException {
     JsonParser validator = new JsonTreeBuilder();
@@ -2155,4 +2169,357 @@ public class JsonTreeBuilderTest {
     assertNotEquals(obj.hashCode(), root.hashCode());
   }
 
-}
\ No newline at end of file
+  @Test
+  public void bulkInputBuildsSameTree() throws InvalidJsonException {
+    String str = "{ \"key\" : [\"v1\", {\"a\":\"b c\"}], \"other\" : \"x\"}";
+    JsonParser charByChar = new JsonTreeBuilder();
+    for (int i = 0; i < str.length(); i++) {
+      charByChar.input(str.charAt(i));
+    }
+    JsonParser bulk = new JsonTreeBuilder();
+    assertEquals(str.length(), bulk.input(str.toCharArray(), 0, str.length()));
+
+    JsonNode expected = (JsonNode) charByChar.output();
+    JsonNode actual = (JsonNode) bulk.output();
+    assertEquals(expected, actual);
+    assertEquals(expected.prettyPrint(), actual.prettyPrint());
+  }
+
+  @Test
+  public void bulkInputStopsAtInvalidCharacter() {
+    JsonParser builder = new JsonTreeBuilder();
+    assertEquals(14, builder.input("{ \"key\" : \"v\" ]"));
+    assertEquals(null, builder.output());
+  }
+
+  @Test
+  public void utf8BytesBuildTree() {
+    JsonTreeBuilder builder = new JsonTreeBuilder();
+    ByteBuffer buffer = ByteBuffer.wrap("{ \"k\u00e9y\" : [\"h\u00e9llo w\u00f6rld\", \"\ud83d\ude00\"]}"
+            .getBytes(StandardCharsets.UTF_8));
+    builder.input(buffer);
+    assertEquals(false, buffer.hasRemaining());
+
+    IJsonArray array = new JsonArray();
+    array.add(new JsonString("h\u00e9llo w\u00f6rld"));
+    array.add(new JsonString("\ud83d\ude00"));
+    IJsonObject expected = new JsonObject();
+    expected.add("k\u00e9y", array);
+    assertEquals(expected, builder.output());
+  }
+
+  @Test
+  public void buildFromMappedFile() throws IOException {
+    Path file = folder.newFile("tree.json").toPath();
+    Files.write(file, "{ \"key\" : [\"v1\", {\"a\":\"b\"}]}".getBytes(StandardCharsets.UTF_8));
+
+    IJsonObject inner = new JsonObject();
+    inner.add("a", new JsonString("b"));
+    IJsonArray array = new JsonArray();
+    array.add(new JsonString("v1"));
+    array.add(inner);
+    IJsonObject expected = new JsonObject();
+    expected.add("key", array);
+    assertEquals(expected, JsonTreeBuilder.build(file));
+
+    Path invalid = folder.newFile("invalid.json").toPath();
+    Files.write(invalid, "{ \"key\" }".getBytes(StandardCharsets.UTF_8));
+    assertEquals(null, JsonTreeBuilder.build(invalid));
+  }
+
+  @Test
+  public void utf8LongValuesAndIndentation() {
+    StringBuilder value = new StringBuilder();
+    for (int i = 0; i < 100; i++) {
+      value.append("long value ").append(i).append(i % 10 == 0 ? " \u00e9 " : " ");
+    }
+    String json = "{\n        \"key\" :\n        [\n            \"" + value
+            + "\",\n            \"x\"\n        ]\n}\n";
+    JsonTreeBuilder builder = new JsonTreeBuilder();
+    byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+    assertEquals(bytes.length, builder.input(bytes, 0, bytes.length));
+
+    JsonParser expected = new JsonTreeBuilder();
+    expected.input(json);
+    assertEquals(expected.output(), builder.output());
+  }
+
+  @Test
+  public void resetAfterValidAndInvalidDocuments() {
+    JsonTreeBuilder builder = new JsonTreeBuilder();
+    builder.input("{ \"key\" : [\"v1\", {\"a\":\"b\"}]}");
+    builder.reset();
+    assertEquals(null, builder.output());
+    assertEquals("Status:Empty", builder.status().toString());
+
+    builder.input("{ \"key\" : \"va");
+    builder.reset();
+    builder.input("{ \"a\" : \"b\" ]");
+    assertEquals("Status:Invalid", builder.status().toString());
+    builder.reset();
+    builder.input("{ \"other\" : \"value\"}");
+
+    IJsonObject expected = new JsonObject();
+    expected.add("other", new JsonString("value"));
+    assertEquals(expected, builder.output());
+  }
+
+  @Test
+  public void checkpointAtEveryOffset() {
+    String json = "{ \"key\" : [\"v\u00e9\", {\"a1\":\"b\"}, [\"c\"]], \"k\" : { \"x\" : \"y\" } }";
+    JsonParser<JsonNode> expected = new JsonTreeBuilder();
+    expected.input(json);
+    byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+    for (int split = 0; split <= bytes.length; split++) {
+      JsonTreeBuilder first = new JsonTreeBuilder();
+      first.input(bytes, 0, split);
+      JsonTreeBuilder second = new JsonTreeBuilder();
+      int offset = (int) second.restore(first.checkpoint(split));
+      second.input(bytes, offset, bytes.length - offset);
+      assertEquals("split at " + split, expected.output(), second.output());
+      assertEquals(expected.output().prettyPrint(), second.output().prettyPrint());
+    }
+  }
+
+  @Test
+  public void restoreCheckpointWithCorruptTextLength() {
+    JsonTreeBuilder other = new JsonTreeBuilder();
+    other.input("{ \"k\" : \"xyz");
+    byte[] checkpoint = other.checkpoint(12);
+    // the text being read is written as its length followed by its UTF-16 chars
+    byte[] chars = "xyz".getBytes(StandardCharsets.UTF_16BE);
+    int lengthAt = 0;
+    while (!Arrays.equals(chars, Arrays.copyOfRange(checkpoint, lengthAt + 4,
+            lengthAt + 4 + chars.length))) {
+      lengthAt++;
+    }
+    checkpoint[lengthAt] = 0x7F;
+
+    JsonTreeBuilder builder = new JsonTreeBuilder();
+    builder.input("{ \"a\" : \"1\"");
+    try {
+      builder.restore(checkpoint);
+      fail("corrupt checkpoint restored");
+    } catch (IllegalArgumentException e) {
+      builder.input("}");
+    }
+    JsonObject expected = new JsonObject();
+    expected.add("a", new JsonString("1"));
+    assertEquals(expected, builder.output());
+  }
+
+  @Test
+  public void emitArrayElements() {
+    StringBuilder emitted = new StringBuilder();
+    JsonTreeBuilder builder = new JsonTreeBuilder(2, (key, node) ->
+            emitted.append(key).append('=').append(node.prettyPrint().replaceAll("\\s", "")).append(' '));
+    builder.input("{ \"meta\" : \"m\", \"items\" : [\"a\", {\"b\":\"c\"}, [\"d\"]],"
+            + " \"more\" : { \"x\" : \"y\" } }");
+    assertEquals("Status:Valid", builder.status().toString());
+    assertEquals("null=\"a\" null={\"b\":\"c\"} null=[\"d\"] x=\"y\" ", emitted.toString());
+
+    IJsonObject expected = new JsonObject();
+    expected.add("meta", new JsonString("m"));
+    expected.add("items", new JsonArray());
+    expected.add("more", new JsonObject());
+    assertEquals(expected, builder.output());
+  }
+
+  @Test
+  public void emitRootValues() {
+    StringBuilder keys = new StringBuilder();
+    JsonTreeBuilder builder = new JsonTreeBuilder(1, (key, node) -> keys.append(key).append(' '));
+    builder.input("{ \"a\" : \"1\", \"b\" : [\"2\"], \"c\" : {\"d\":\"3\"} }");
+    assertEquals("a b c ", keys.toString());
+    assertEquals(new JsonObject(), builder.output());
+  }
+
+  @Test
+  public void emitKeepsBuilderReusable() {
+    int[] count = new int[1];
+    JsonTreeBuilder builder = new JsonTreeBuilder(2, (key, node) -> count[0]++);
+    builder.input("{ \"items\" : [\"a\", \"b\"] }");
+    builder.reset();
+    builder.input("{ \"items\" : [\"c\"] }");
+    assertEquals(3, count[0]);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void emitDepthZero() {
+    new JsonTreeBuilder(0, (key, node) -> { });
+  }
+
+  @Test
+  public void projectSelectedPaths() {
+    String json = "{ \"id\" : \"7\", \"payload\" : { \"user\" : { \"name\" : \"ann\","
+            + " \"email\" : \"a@b\" }, \"extra\" : [\"x\", {\"y\":\"z\"}], \"id\" : \"p\" },"
+            + " \"meta\" : { \"name\" : \"m\" } }";
+    JsonTreeBuilder builder = new JsonTreeBuilder(JsonProjection.of("/payload/user/name", "/id"));
+    builder.input(json);
+
+    IJsonObject user = new JsonObject();
+    user.add("name", new JsonString("ann"));
+    IJsonObject payload = new JsonObject();
+    payload.add("user", user);
+    IJsonObject expected = new JsonObject();
+    expected.add("id", new JsonString("7"));
+    expected.add("payload", payload);
+    assertEquals("Status:Valid", builder.status().toString());
+    assertEquals(expected, builder.output());
+  }
+
+  @Test
+  public void projectSkipsStringsOnSelectedPaths() throws InvalidJsonException {
+    IJsonObject id = new JsonObject();
+    id.add("id", new JsonString("1"));
+    IJsonObject emptyPayload = new JsonObject();
+    emptyPayload.add("payload", new JsonObject());
+    emptyPayload.add("id", new JsonString("1"));
+    String[] inputs = {"{\"payload\":\"x\",\"id\":\"1\"}",
+        "{\"payload\":{\"user\":\"x\"},\"id\":\"1\"}", "{\"id\":\"1\",\"payload\":\"x\"}"};
+    IJsonObject[] outputs = {id, emptyPayload, id};
+
+    for (int i = 0; i < inputs.length; i++) {
+      JsonProjection projection = JsonProjection.of("/payload/user/name", "/id");
+      JsonTreeBuilder whole = new JsonTreeBuilder(projection);
+      whole.input(inputs[i]);
+      assertEquals(inputs[i], outputs[i], whole.output());
+
+      JsonTreeBuilder single = new JsonTreeBuilder(projection);
+      for (char c : inputs[i].toCharArray()) {
+        single.input(c);
+      }
+      assertEquals(inputs[i], outputs[i], single.output());
+    }
+  }
+
+  @Test
+  public void projectThroughArrays() {
+    String json = "{ \"items\" : [ {\"id\":\"1\", \"v\":\"a\"}, \"skipped\", [ {\"id\":\"2\"} ],"
+            + " {\"v\":\"b\"} ], \"whole\" : [\"w\", {\"x\":\"y\"}] }";
+    JsonTreeBuilder builder = new JsonTreeBuilder(JsonProjection.of("/items/id", "/whole"));
+    builder.input(json);
+
+    IJsonObject first = new JsonObject();
+    first.add("id", new JsonString("1"));
+    IJsonObject second = new JsonObject();
+    second.add("id", new JsonString("2"));
+    IJsonArray nested = new JsonArray();
+    nested.add(second);
+    IJsonArray items = new JsonArray();
+    items.add(first);
+    items.add(nested);
+    items.add(new JsonObject());
+    IJsonObject inner = new JsonObject();
+    inner.add("x", new JsonString("y"));
+    IJsonArray whole = new JsonArray();
+    whole.add(new JsonString("w"));
+    whole.add(inner);
+    IJsonObject expected = new JsonObject();
+    expected.add("items", items);
+    expected.add("whole", whole);
+    assertEquals(expected, builder.output());
+  }
+
+  @Test
+  public void projectUtf8Input() {
+    String json = "{ \"skip\" : \"a long value \u00e9 that is skipped\", \"keep\" : \"caf\u00e9 value\" }";
+    byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+    JsonTreeBuilder builder = new JsonTreeBuilder(JsonProjection.of("/keep"));
+    assertEquals(bytes.length, builder.input(bytes, 0, bytes.length));
+    IJsonObject expected = new JsonObject();
+    expected.add("keep", new JsonString("caf\u00e9 value"));
+    assertEquals(expected, builder.output());
+  }
+
+  @Test
+  public void projectionKeepsValidation() {
+    String[] documents = {
+      "{ \"skip\" : { \"1\" : \"x\" } }", "{ \"skip\" : [\"x\" } }", "{ \"skip\" : [\"x\"], }",
+      "{ \"skip\" : { \"a\" : [\"b\"] ", "{ \"skip\" : { \"a\" : [\"b\"] } } x",
+      "{ \"skip\" : { \"a\" : [\"b\", [], {\"c\":\"d\"}] }, \"keep\" : \"k\" }"
+    };
+    for (String document : documents) {
+      JsonTreeBuilder plain = new JsonTreeBuilder();
+      plain.input(document);
+      JsonTreeBuilder projected = new JsonTreeBuilder(JsonProjection.of("/keep"));
+      projected.input(document);
+      assertEquals(document, plain.status(), projected.status());
+    }
+  }
+
+  @Test
+  public void checkpointWhileProjecting() {
+    String json = "{ \"a\" : { \"b\" : [\"c\", {\"d\":\"e\"}] }, \"keep\" : [{\"k\":\"v\"}] }";
+    JsonProjection projection = JsonProjection.of("/keep/k");
+    JsonTreeBuilder expected = new JsonTreeBuilder(projection);
+    expected.input(json);
+    for (int split = 0; split <= json.length(); split++) {
+      JsonTreeBuilder first = new JsonTreeBuilder(projection);
+      first.input(json.substring(0, split));
+      JsonTreeBuilder second = new JsonTreeBuilder(projection);
+      int offset = (int) second.restore(first.checkpoint(split));
+      second.input(json.substring(offset));
+      assertEquals("split at " + split, expected.output(), second.output());
+    }
+  }
+
+  @Test
+  public void lazyStringsFromEveryInput() throws IOException {
+    String json = "{ \"key\" : [\"value one\", {\"a\":\"b\"}, \"\"], \"k\" : \"caf\u00e9\" }";
+    JsonParser<JsonNode> expected = new JsonTreeBuilder();
+    expected.input(json);
+
+    JsonTreeBuilder fromSequence = new JsonTreeBuilder();
+    fromSequence.setLazyStrings(true);
+    fromSequence.input(json);
+    assertEquals(expected.output(), fromSequence.output());
+    assertEquals(expected.output().prettyPrint(), fromSequence.output().prettyPrint());
+    assertEquals(expected.output().hashCode(), fromSequence.output().hashCode());
+
+    JsonTreeBuilder fromArray = new JsonTreeBuilder();
+    fromArray.setLazyStrings(true);
+    char[] chars = json.toCharArray();
+    fromArray.input(chars, 0, chars.length);
+    assertEquals(expected.output(), fromArray.output());
+
+    JsonTreeBuilder fromBytes = new JsonTreeBuilder();
+    fromBytes.setLazyStrings(true);
+    byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+    fromBytes.input(bytes, 0, bytes.length);
+    assertEquals(expected.output(), fromBytes.output());
+
+    Path file = folder.newFile("lazy.json").toPath();
+    Files.write(file, bytes);
+    JsonTreeBuilder fromFile = new JsonTreeBuilder();
+    fromFile.setLazyStrings(true);
+    fromFile.input(file);
+    assertEquals(expected.output(), fromFile.output());
+    assertEquals(expected.output().prettyPrint(), fromFile.output().prettyPrint());
+  }
+
+  @Test
+  public void lazyStringsReferToInput() {
+    String json = "{ \"a\" : \"first\", \"b\" : \"second\" }";
+    JsonTreeBuilder builder = new JsonTreeBuilder();
+    builder.setLazyStrings(true);
+    builder.input(json);
+    for (Map.Entry<String, JsonNode> entry : ((JsonObject) builder.output()).entries()) {
+      assertEquals(LazyJsonString.class, entry.getValue().getClass());
+    }
+  }
+
+  @Test
+  public void lazyStringsSplitAcrossCalls() {
+    String json = "{ \"a\" : \"first value\", \"b\" : [\"second\"] }";
+    JsonParser<JsonNode> expected = new JsonTreeBuilder();
+    expected.input(json);
+    for (int split = 0; split <= json.length(); split++) {
+      JsonTreeBuilder builder = new JsonTreeBuilder();
+      builder.setLazyStrings(true);
+      builder.input(json.substring(0, split));
+      builder.input(json.substring(split));
+      assertEquals("split at " + split, expected.output(), builder.output());
+    }
+  }
+}
@@ -0,0 +1,127 @@
+package jsontree;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Test cases for KeySymbolTable and its use by JsonTreeBuilder.
+ */
+public class KeySymbolTableTest {
+
+  @Test
+  public void hitReturnsSameString() {
+    KeySymbolTable table = new KeySymbolTable();
+    String first = table.intern(new StringBuilder("name"));
+    assertEquals("name", first);
+    assertSame(first, table.intern(new StringBuilder("name")));
+    assertSame(first, table.intern("name"));
+    assertEquals("other", table.intern("other"));
+  }
+
+  @Test
+  public void capacityIsRoundedUp() {
+    assertEquals(1024, new KeySymbolTable().capacity());
+    assertEquals(1, new KeySymbolTable(1, 8).capacity());
+    assertEquals(128, new KeySymbolTable(100, 8).capacity());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void zeroCapacity() {
+    new KeySymbolTable(0, 8);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void negativeKeyLength() {
+    new KeySymbolTable(16, -1);
+  }
+
+  @Test
+  public void collidingKeysEvict() {
+    KeySymbolTable table = new KeySymbolTable(1, 8);
+    String a = table.intern(new StringBuilder("a"));
+    String b = table.intern(new StringBuilder("b"));
+    assertEquals("b", b);
+    assertSame(b, table.intern(new StringBuilder("b")));
+    assertNotSame(a, table.intern(new StringBuilder("a")));
+  }
+
+  @Test
+  public void longKeysAreNotCached() {
+    KeySymbolTable table = new KeySymbolTable(16, 3);
+    String key = table.intern(new StringBuilder("abcd"));
+    assertEquals("abcd", key);
+    assertNotSame(key, table.intern(new StringBuilder("abcd")));
+    assertSame(table.intern(new StringBuilder("abc")), table.intern(new StringBuilder("abc")));
+  }
+
+  @Test
+  public void sharedBetweenThreads() throws Exception {
+    KeySymbolTable table = new KeySymbolTable(64, 16);
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<Boolean>> results = new ArrayList<>();
+      for (int t = 0; t < 4; t++) {
+        results.add(executor.submit(() -> {
+          for (int i = 0; i < 10000; i++) {
+            String key = "key" + (i % 200);
+            if (!key.equals(table.intern(new StringBuilder(key)))) {
+              return false;
+            }
+          }
+          return true;
+        }));
+      }
+      for (Future<Boolean> result : results) {
+        assertEquals(true, result.get());
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void buildersShareKeys() {
+    KeySymbolTable table = new KeySymbolTable();
+    JsonTreeBuilder first = new JsonTreeBuilder();
+    first.setKeySymbols(table);
+    first.input("{ \"id\" : \"1\", \"tags\" : [ { \"id\" : \"2\" } ] }");
+    JsonTreeBuilder second = new JsonTreeBuilder();
+    second.setKeySymbols(table);
+    second.input("{ \"id\" : \"3\" }");
+
+    String firstKey = ((JsonObject) first.output()).entries().get(0).getKey();
+    String secondKey = ((JsonObject) second.output()).entries().get(0).getKey();
+    assertSame(firstKey, secondKey);
+    JsonArray tags = (JsonArray) ((JsonObject) first.output()).entries().get(1).getValue();
+    Map.Entry<String, JsonNode> nested = ((JsonObject) tags.elements().get(0)).entries().get(0);
+    assertSame(firstKey, nested.getKey());
+  }
+
+  @Test
+  public void buildersUseSharedTableByDefault() {
+    JsonTreeBuilder first = new JsonTreeBuilder();
+    first.input("{ \"sharedDefault\" : \"1\" }");
+    JsonTreeBuilder second = new JsonTreeBuilder();
+    second.input("{ \"sharedDefault\" : \"2\" }");
+
+    String firstKey = ((JsonObject) first.output()).entries().get(0).getKey();
+    String secondKey = ((JsonObject) second.output()).entries().get(0).getKey();
+    assertSame(firstKey, secondKey);
+    assertSame(firstKey, KeySymbolTable.shared().intern(new StringBuilder("sharedDefault")));
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void builderRejectsNullTable() {
+    new JsonTreeBuilder().setKeySymbols(null);
+  }
+}
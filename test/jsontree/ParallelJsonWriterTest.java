@@ -0,0 +1,165 @@
+package jsontree;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Test cases for ParallelJsonWriter and for printing trees from several threads.
+ * The parallel output is compared with writeTo of the same tree.
+ */
+public class ParallelJsonWriterTest {
+  private final ForkJoinPool pool = new ForkJoinPool(4);
+
+  @After
+  public void shutdown() {
+    pool.shutdown();
+  }
+
+  /**
+   * Builds an array of objects, each holding a key, a string and a small array.
+   *
+   * @param size the number of objects
+   * @return the array
+   */
+  private static IJsonArray records(int size) {
+    IJsonArray records = new JsonArray();
+    for (int i = 0; i < size; i++) {
+      IJsonObject record = new JsonObject();
+      record.add("id", new JsonString("r" + i));
+      IJsonArray tags = new JsonArray();
+      tags.add(new JsonString("t" + (i % 7)));
+      tags.add(new JsonString("u" + (i % 3)));
+      record.add("tags", tags);
+      records.add(record);
+    }
+    return records;
+  }
+
+  @Test
+  public void largeArrayMatchesSequential() {
+    IJsonArray records = records(5000);
+    ParallelJsonWriter writer = new ParallelJsonWriter(pool, 16);
+    for (JsonStyle style : JsonStyle.values()) {
+      assertEquals(records.toString(style), writer.toString(records, style));
+    }
+    String pretty = new ParallelJsonWriter().toString(records, JsonStyle.PRETTY);
+    assertEquals(records.prettyPrint(), pretty);
+  }
+
+  @Test
+  public void nestedLargeContainersAreSplit() {
+    IJsonObject root = new JsonObject();
+    root.add("records", records(300));
+    IJsonObject wide = new JsonObject();
+    for (int i = 0; i < 300; i++) {
+      wide.add("k" + i, i % 2 == 0 ? new JsonString("v" + i) : records(3));
+    }
+    root.add("wide", wide);
+    ParallelJsonWriter writer = new ParallelJsonWriter(pool, 7);
+    for (JsonStyle style : JsonStyle.values()) {
+      assertEquals(root.toString(style), writer.toString(root, style));
+    }
+  }
+
+  @Test
+  public void smallAndEmptyNodes() throws IOException {
+    ParallelJsonWriter writer = new ParallelJsonWriter(pool, 1);
+    assertEquals("[\n]", writer.toString(new JsonArray(), JsonStyle.PRETTY));
+    assertEquals("{}", writer.toString(new JsonObject(), JsonStyle.COMPACT));
+    assertEquals("\"s\"", writer.toString(new JsonString("s"), JsonStyle.PRETTY));
+
+    IJsonObject tapeRoot = JsonTape.parse("{ \"a\" : [ \"b\", \"c\" ] }").root();
+    StringWriter out = new StringWriter();
+    writer.writeTo(tapeRoot, out, JsonStyle.PRETTY);
+    assertEquals(tapeRoot.prettyPrint(), out.toString());
+  }
+
+  @Test
+  public void writeToAppendsSegmentsInOrder() throws IOException {
+    IJsonArray records = records(100);
+    List<String> appended = new ArrayList<>();
+    Appendable out = new Appendable() {
+      @Override
+      public Appendable append(CharSequence chars) {
+        appended.add(chars.toString());
+        return this;
+      }
+
+      @Override
+      public Appendable append(CharSequence chars, int start, int end) {
+        return append(chars.subSequence(start, end));
+      }
+
+      @Override
+      public Appendable append(char c) {
+        return append(String.valueOf(c));
+      }
+    };
+    new ParallelJsonWriter(pool, 10).writeTo(records, out, JsonStyle.COMPACT);
+    assertEquals(true, appended.size() > 10);
+    assertEquals(records.toString(JsonStyle.COMPACT), String.join("", appended));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void invalidSegmentSize() {
+    new ParallelJsonWriter(pool, 0);
+  }
+
+  @Test
+  public void printingDoesNotModifyChildren() {
+    IJsonArray inner = new JsonArray();
+    inner.add(new JsonString("x"));
+    IJsonArray outer = new JsonArray();
+    outer.add(inner);
+    String standalone = inner.prettyPrint();
+    outer.prettyPrint();
+    assertEquals(standalone, inner.prettyPrint());
+    assertEquals("[\n  \"x\"\n]", inner.prettyPrint());
+  }
+
+  @Test
+  public void sharedSubtreePrintedByThreads() throws Exception {
+    IJsonArray shared = records(50);
+    List<IJsonArray> parents = new ArrayList<>();
+    List<String> expected = new ArrayList<>();
+    IJsonArray wrapper = shared;
+    for (int depth = 0; depth < 8; depth++) {
+      IJsonArray parent = new JsonArray();
+      parent.add(wrapper);
+      parents.add(parent);
+      expected.add(parent.prettyPrint());
+      wrapper = parent;
+    }
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<Boolean>> results = new ArrayList<>();
+      for (int t = 0; t < 8; t++) {
+        int index = t;
+        results.add(executor.submit(() -> {
+          for (int i = 0; i < 20; i++) {
+            if (!expected.get(index).equals(parents.get(index).prettyPrint())) {
+              return false;
+            }
+          }
+          return true;
+        }));
+      }
+      for (Future<Boolean> result : results) {
+        assertEquals(true, result.get());
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+}
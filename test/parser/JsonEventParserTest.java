@@ -0,0 +1,135 @@
+package parser;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+import validator.JsonValidator;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Junit test class for JsonEventParser class.
+ * Records the events of a document as text and checks the status against JsonValidator.
+ */
+public class JsonEventParserTest {
+
+  private static final String NESTED = "{ \"name\" : \"x y\", \"list\" : [\"a\", {\"k1\":\"b\"}, [],],"
+          + " \"inner\" : { \"deep\" : {\"z\":\"\"} } }";
+
+  private static final String NESTED_EVENTS = "{ key(name) value(x y) key(list) [ value(a) { key(k1)"
+          + " value(b) } [ ] ] key(inner) { key(deep) { key(z) value() } } } ";
+
+  @Test
+  public void reportsEventsInOrder() {
+    RecordingHandler handler = new RecordingHandler();
+    JsonEventParser parser = new JsonEventParser(handler);
+    parser.input(NESTED);
+    assertEquals("Status:Valid", parser.output());
+    assertEquals(NESTED_EVENTS, handler.events.toString());
+  }
+
+  @Test
+  public void reportsEventsFromUtf8() {
+    RecordingHandler handler = new RecordingHandler();
+    JsonEventParser parser = new JsonEventParser(handler);
+    String json = "{ \"k\" : \"caf\u00e9 \ud83d\ude00 long value of plain ascii text\" }";
+    byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+    assertEquals(bytes.length, parser.input(bytes, 0, bytes.length));
+    assertEquals("Status:Valid", parser.output());
+    assertEquals("{ key(k) value(caf\u00e9 \ud83d\ude00 long value of plain ascii text) } ",
+            handler.events.toString());
+  }
+
+  @Test
+  public void defaultHandlerIgnoresEvents() {
+    JsonEventParser parser = new JsonEventParser(new JsonEventHandler() { });
+    parser.input(NESTED);
+    assertEquals("Status:Valid", parser.output());
+  }
+
+  @Test
+  public void sameStatusAsValidator() {
+    String[] documents = {
+      "", "{", "{ \"key\" : ", "{ \"1\" : \"h\"}", "{ \"k\" : \"v\" ] }", "{ \"k\" \"v\" }",
+      "{ \"k\" : [\"v\" }", "{ \"k\" : \"v\" } x", "[]", "{ \"k\" : [,] }", NESTED
+    };
+    for (String document : documents) {
+      JsonValidator validator = new JsonValidator();
+      validator.input(document);
+      JsonEventParser parser = new JsonEventParser(new RecordingHandler());
+      parser.input(document);
+      assertEquals(document, validator.output(), parser.output());
+    }
+  }
+
+  @Test(expected = InvalidJsonException.class)
+  public void throwsOnInvalidCharacter() throws InvalidJsonException {
+    JsonEventParser parser = new JsonEventParser(new RecordingHandler());
+    parser.input('{');
+    parser.input('}');
+  }
+
+  @Test
+  public void resetKeepsHandler() {
+    RecordingHandler handler = new RecordingHandler();
+    JsonEventParser parser = new JsonEventParser(handler);
+    parser.input("{ \"key\" : \"va");
+    parser.reset();
+    handler.events.setLength(0);
+    parser.input("{ \"a\" : \"b\" }");
+    assertEquals("Status:Valid", parser.output());
+    assertEquals("{ key(a) value(b) } ", handler.events.toString());
+  }
+
+  /**
+   * Writes every event as a short token.
+   */
+  private static final class RecordingHandler implements JsonEventHandler {
+    private final StringBuilder events = new StringBuilder();
+
+    @Override
+    public void startObject() {
+      events.append("{ ");
+    }
+
+    @Override
+    public void key(CharSequence key) {
+      events.append("key(").append(key).append(") ");
+    }
+
+    @Override
+    public void stringValue(CharSequence value) {
+      events.append("value(").append(value).append(") ");
+    }
+
+    @Override
+    public void startArray() {
+      events.append("[ ");
+    }
+
+    @Override
+    public void endArray() {
+      events.append("] ");
+    }
+
+    @Override
+    public void endObject() {
+      events.append("} ");
+    }
+  }
+
+  @Test
+  public void checkpointAtEveryOffset() {
+    for (int split = 0; split <= NESTED.length(); split++) {
+      RecordingHandler handler = new RecordingHandler();
+      JsonEventParser first = new JsonEventParser(handler);
+      first.input(NESTED.substring(0, split));
+      JsonEventParser second = new JsonEventParser(handler);
+      int offset = (int) second.restore(first.checkpoint(split));
+      second.input(NESTED.substring(offset));
+      assertEquals("Status:Valid", second.output());
+      assertEquals("split at " + split, NESTED_EVENTS, handler.events.toString());
+    }
+  }
+}
@@ -0,0 +1,183 @@
+package parser;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import jsontree.JsonNode;
+import jsontree.JsonObject;
+import jsontree.JsonString;
+import jsontree.JsonTreeBuilder;
+import validator.JsonValidator;
+import validator.Status;
+import validator.TableJsonValidator;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Junit test class for JsonLinesParser class.
+ * Checks records, offsets and resynchronisation for whole inputs, inputs split at every byte,
+ * concatenated documents and files.
+ */
+public class JsonLinesParserTest {
+
+  private static final String LINES = "{\"a\":\"1\"}\n"
+          + "{\"b\" \"2\"}\n"
+          + "  {\"c\":[\"x\",\"caf\u00e9\"]}  \r\n"
+          + "\n"
+          + "{\"d\":\"\u00e9\"}{\"e\":{\"f\":\"g\"}}\n"
+          + "{\"h\":\"1\"} oops {\"i\":\"2\"}\n"
+          + "{\"j\":";
+
+  private static final String EXPECTED = "Status:Valid [0, 9) Status:Valid|"
+          + "Status:Invalid [10, 19) Status:Invalid|"
+          + "Status:Valid [22, 41) Status:Valid|"
+          + "Status:Valid [46, 56) Status:Valid|"
+          + "Status:Valid [56, 71) Status:Valid|"
+          + "Status:Valid [72, 81) Status:Valid|"
+          + "Status:Invalid [82, 96) Status:Invalid|"
+          + "Status:Incomplete [97, 102) Status:Incomplete|";
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void recordsOfWholeInput() {
+    byte[] bytes = LINES.getBytes(StandardCharsets.UTF_8);
+    for (AbstractJsonParser<String> validator
+            : List.of(new JsonValidator(), new TableJsonValidator())) {
+      List<JsonRecord<String>> records = new ArrayList<>();
+      JsonLinesParser<String> parser = new JsonLinesParser<>(validator, records::add);
+      parser.input(bytes, 0, bytes.length);
+      parser.finish();
+      assertEquals(EXPECTED, describe(records));
+    }
+  }
+
+  @Test
+  public void recordsOfInputSplitAtEveryByte() {
+    byte[] bytes = LINES.getBytes(StandardCharsets.UTF_8);
+    for (int split = 0; split <= bytes.length; split++) {
+      List<JsonRecord<String>> records = new ArrayList<>();
+      JsonLinesParser<String> parser = new JsonLinesParser<>(new JsonValidator(), records::add);
+      parser.input(bytes, 0, split);
+      parser.input(bytes, split, bytes.length - split);
+      parser.finish();
+      assertEquals("split at " + split, EXPECTED, describe(records));
+    }
+  }
+
+  @Test
+  public void recordsOfSingleBytes() {
+    byte[] bytes = LINES.getBytes(StandardCharsets.UTF_8);
+    List<JsonRecord<String>> records = new ArrayList<>();
+    JsonLinesParser<String> parser = new JsonLinesParser<>(new JsonValidator(), records::add);
+    for (int i = 0; i < bytes.length; i++) {
+      parser.input(bytes, i, 1);
+    }
+    parser.finish();
+    assertEquals(EXPECTED, describe(records));
+  }
+
+  @Test
+  public void treePerRecord() throws Exception {
+    Path file = folder.newFile("records.jsonl").toPath();
+    Files.write(file, "{\"a\":\"1\"}\n{\"a\" }\n{\"b\":\"2\"}\n".getBytes(StandardCharsets.UTF_8));
+    List<JsonRecord<JsonNode>> records = new ArrayList<>();
+    new JsonLinesParser<>(new JsonTreeBuilder(), records::add).input(file);
+
+    assertEquals(3, records.size());
+    JsonObject first = new JsonObject();
+    first.add("a", new JsonString("1"));
+    JsonObject third = new JsonObject();
+    third.add("b", new JsonString("2"));
+    assertEquals(first, records.get(0).output());
+    assertEquals(Status.INVALID, records.get(1).status());
+    assertEquals(null, records.get(1).output());
+    assertEquals(third, records.get(2).output());
+    assertEquals(17, records.get(2).offset());
+    assertEquals(9, records.get(2).length());
+  }
+
+  @Test
+  public void newlineEndsUnfinishedRecord() {
+    byte[] bytes = "{\"a\":\"b\"\n{\"c\":\"d\"}\n{\"e\":\"f\"}\n".getBytes(StandardCharsets.UTF_8);
+    String expected = "Status:Invalid [0, 8) Status:Invalid|"
+            + "Status:Valid [9, 18) Status:Valid|"
+            + "Status:Valid [19, 28) Status:Valid|";
+
+    List<JsonRecord<String>> records = new ArrayList<>();
+    JsonLinesParser<String> parser = new JsonLinesParser<>(new JsonValidator(), records::add);
+    parser.input(bytes, 0, bytes.length);
+    parser.finish();
+    assertEquals(expected, describe(records));
+
+    records.clear();
+    for (int i = 0; i < bytes.length; i++) {
+      parser.input(bytes, i, 1);
+    }
+    parser.finish();
+    assertEquals(expected, describe(records));
+  }
+
+  @Test
+  public void lineOfOtherWhitespaceIsSkipped() {
+    String lines = "{\"a\":\"1\"}\n\f\u000B\n\u2003\n{\"b\":\"2\"}\n";
+    byte[] bytes = lines.getBytes(StandardCharsets.UTF_8);
+    List<JsonRecord<String>> records = new ArrayList<>();
+    JsonLinesParser<String> parser = new JsonLinesParser<>(new JsonValidator(), records::add);
+    parser.input(bytes, 0, bytes.length);
+    parser.finish();
+    assertEquals("Status:Valid [0, 9) Status:Valid|Status:Valid [17, 26) Status:Valid|",
+            describe(records));
+  }
+
+  @Test
+  public void parserStopsAtEndOnlyForLines() {
+    JsonValidator validator = new JsonValidator();
+    List<JsonRecord<String>> records = new ArrayList<>();
+    JsonLinesParser<String> parser = new JsonLinesParser<>(validator, records::add);
+    byte[] bytes = "{\"a\":\"b\"} {\"c\":\"d\"}\n".getBytes(StandardCharsets.UTF_8);
+    parser.input(bytes, 0, bytes.length);
+    parser.finish();
+    assertEquals(2, records.size());
+
+    validator.reset();
+    validator.input("{\"a\":\"b\"} x");
+    assertEquals("Status:Invalid", validator.output());
+  }
+
+  @Test
+  public void emptyInput() {
+    List<JsonRecord<String>> records = new ArrayList<>();
+    JsonLinesParser<String> parser = new JsonLinesParser<>(new JsonValidator(), records::add);
+    parser.input(" \n\n ".getBytes(StandardCharsets.UTF_8), 0, 4);
+    parser.finish();
+    assertEquals(0, records.size());
+  }
+
+  @Test
+  public void singleDocumentInputIsUnchanged() {
+    JsonValidator validator = new JsonValidator();
+    byte[] bytes = "{\"a\":\"1\"} {".getBytes(StandardCharsets.UTF_8);
+    assertEquals(10, validator.input(bytes, 0, bytes.length));
+    assertEquals("Status:Invalid", validator.output());
+  }
+
+  /**
+   * Writes every record with the output of its parser.
+   */
+  private static String describe(List<JsonRecord<String>> records) {
+    StringBuilder text = new StringBuilder();
+    for (JsonRecord<String> record : records) {
+      text.append(record).append(' ').append(record.output()).append('|');
+    }
+    return text.toString();
+  }
+}
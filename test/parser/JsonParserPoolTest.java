@@ -0,0 +1,102 @@
+package parser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import jsontree.JsonTreeBuilder;
+import validator.JsonValidator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Junit test class for JsonParserPool class.
+ * Tests reuse of released parsers, the capacity bound and concurrent borrowing.
+ */
+public class JsonParserPoolTest {
+
+  @Test
+  public void reusesReleasedParser() {
+    JsonParserPool<JsonValidator> pool = new JsonParserPool<>(JsonValidator::new, 2);
+    JsonValidator validator = pool.borrow();
+    validator.input("{ \"key\" : \"value\"}");
+    assertEquals("Status:Valid", validator.output());
+    pool.release(validator);
+    assertEquals(1, pool.idleCount());
+
+    JsonValidator reused = pool.borrow();
+    assertSame(validator, reused);
+    assertEquals("Status:Empty", reused.output());
+    assertEquals(0, pool.idleCount());
+  }
+
+  @Test
+  public void resetsInvalidParser() {
+    JsonParserPool<JsonTreeBuilder> pool = new JsonParserPool<>(JsonTreeBuilder::new, 1);
+    JsonTreeBuilder builder = pool.borrow();
+    builder.input("{ \"key\" ");
+    builder.input("}");
+    assertEquals("Status:Invalid", builder.status().toString());
+    pool.release(builder);
+
+    builder = pool.borrow();
+    builder.input("{ \"key\" : \"value\"}");
+    assertEquals("Status:Valid", builder.status().toString());
+  }
+
+  @Test
+  public void dropsParsersBeyondCapacity() {
+    AtomicInteger created = new AtomicInteger();
+    JsonParserPool<JsonValidator> pool = new JsonParserPool<>(() -> {
+      created.incrementAndGet();
+      return new JsonValidator();
+    }, 1);
+    JsonValidator first = pool.borrow();
+    JsonValidator second = pool.borrow();
+    assertNotSame(first, second);
+    pool.release(first);
+    pool.release(second);
+    assertEquals(1, pool.idleCount());
+    assertSame(first, pool.borrow());
+    assertEquals(2, created.get());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void noCapacity() {
+    new JsonParserPool<>(JsonValidator::new, 0);
+  }
+
+  @Test
+  public void concurrentBorrowing() throws Exception {
+    JsonParserPool<JsonValidator> pool = new JsonParserPool<>(JsonValidator::new, 4);
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<String>> results = new ArrayList<>();
+      for (int i = 0; i < 1000; i++) {
+        String json = i % 2 == 0 ? "{ \"key\" : \"value\"}" : "{ \"key\" : ";
+        results.add(executor.submit(() -> {
+          JsonValidator validator = pool.borrow();
+          try {
+            validator.input(json);
+            return validator.output();
+          } finally {
+            pool.release(validator);
+          }
+        }));
+      }
+      for (int i = 0; i < results.size(); i++) {
+        assertEquals(i % 2 == 0 ? "Status:Valid" : "Status:Incomplete", results.get(i).get());
+      }
+    } finally {
+      executor.shutdown();
+    }
+    assertEquals(true, pool.idleCount() <= 4);
+  }
+}
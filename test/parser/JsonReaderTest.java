@@ -0,0 +1,195 @@
+package parser;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import validator.JsonValidator;
+import validator.Status;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Junit test class for JsonReader class.
+ * Checks the token sequence, skipping of subtrees, buffer refills at every position,
+ * and that status and error messages match JsonValidator.
+ */
+public class JsonReaderTest {
+
+  private static final String NESTED = "{ \"name\" : \"x y\", \"list\" : [\"a\", {\"k1\":\"b\"}, [],],"
+          + " \"inner\" : { \"deep\" : {\"z\":\"\"} } }";
+
+  private static final String[] DOCUMENTS = {
+    "", "  ", "{", "{ \"key\" : ", "{ \"key\" : \"va", "{ \"ke", "{ \"1\" : \"h\"}",
+    "{ \"k y\" : \"h\"}", "{ \"k\" : \"v\" ] }", "{ \"k\" \"v\" }", "{ \"k\" : [\"v\" }",
+    "{ \"k\" : \"v\" } x", "{ \"k\" : \"v\" }  ", "[]", "{ \"k\" : [,] }", "{ }",
+    "{ \"k\" : \"v\", }", "{ \"k\" : ] }", NESTED
+  };
+
+  @Test
+  public void readsTokensInOrder() throws Exception {
+    for (int bufferSize : new int[] {1, 2, 3, 7, 8192}) {
+      JsonReader reader = new JsonReader(new StringReader(NESTED), bufferSize);
+      assertEquals("{ key(name) value(x y) key(list) [ value(a) { key(k1) value(b) } [ ] ]"
+              + " key(inner) { key(deep) { key(z) value() } } } end", tokens(reader));
+      assertEquals(Status.VALID, reader.status());
+      assertEquals(JsonToken.END_DOCUMENT, reader.nextToken());
+    }
+  }
+
+  @Test
+  public void keyIsKeptWhileValueIsRead() throws Exception {
+    JsonReader reader = new JsonReader(new StringReader("{ \"name\" : \"value\" }"));
+    assertEquals(JsonToken.START_OBJECT, reader.nextToken());
+    assertEquals(JsonToken.KEY, reader.nextToken());
+    assertEquals(JsonToken.STRING, reader.nextToken());
+    assertEquals("name", reader.currentKey());
+    assertEquals("value", reader.currentString());
+    assertEquals(JsonToken.STRING, reader.currentToken());
+  }
+
+  @Test
+  public void skipChildren() throws Exception {
+    for (int bufferSize : new int[] {1, 5, 8192}) {
+      JsonReader reader = new JsonReader(new StringReader(NESTED), bufferSize);
+      assertEquals(JsonToken.START_OBJECT, reader.nextToken());
+      assertEquals(JsonToken.KEY, reader.nextToken());
+      reader.skipChildren();
+      assertEquals(JsonToken.KEY, reader.currentToken());
+      assertEquals(JsonToken.STRING, reader.nextToken());
+      assertEquals(JsonToken.KEY, reader.nextToken());
+      assertEquals(JsonToken.START_ARRAY, reader.nextToken());
+      reader.skipChildren();
+      assertEquals(JsonToken.END_ARRAY, reader.currentToken());
+      assertEquals(JsonToken.KEY, reader.nextToken());
+      assertEquals("inner", reader.currentKey());
+      assertEquals(JsonToken.START_OBJECT, reader.nextToken());
+      reader.skipChildren();
+      assertEquals(JsonToken.END_OBJECT, reader.currentToken());
+      assertEquals("} end", tokens(reader));
+    }
+  }
+
+  @Test
+  public void skipChildrenKeepsCurrentKeyAndString() throws Exception {
+    String json = "{ \"s\" : \"before\", \"k\" : { \"inner\" : \"v\", \"list\" : [ \"x\" ] } }";
+    for (int bufferSize : new int[] {1, 8192}) {
+      JsonReader reader = new JsonReader(new StringReader(json), bufferSize);
+      reader.nextToken();
+      reader.nextToken();
+      assertEquals(JsonToken.STRING, reader.nextToken());
+      assertEquals(JsonToken.KEY, reader.nextToken());
+      assertEquals(JsonToken.START_OBJECT, reader.nextToken());
+      reader.skipChildren();
+      assertEquals(JsonToken.END_OBJECT, reader.currentToken());
+      assertEquals("k", reader.currentKey());
+      assertEquals("before", reader.currentString());
+    }
+  }
+
+  @Test
+  public void skipRootObject() throws Exception {
+    JsonReader reader = new JsonReader(new StringReader(NESTED), 4);
+    reader.nextToken();
+    reader.skipChildren();
+    assertEquals(JsonToken.END_OBJECT, reader.currentToken());
+    assertEquals(Status.VALID, reader.status());
+    assertEquals(JsonToken.END_DOCUMENT, reader.nextToken());
+  }
+
+  @Test(expected = InvalidJsonException.class)
+  public void skipInvalidChildren() throws Exception {
+    JsonReader reader = new JsonReader(new StringReader("{ \"a\" : [ \"b\" } }"));
+    reader.nextToken();
+    reader.nextToken();
+    reader.nextToken();
+    reader.skipChildren();
+  }
+
+  @Test
+  public void sameStatusAndErrorAsValidator() throws Exception {
+    for (String document : DOCUMENTS) {
+      JsonValidator validator = new JsonValidator();
+      String expectedError = null;
+      try {
+        for (char c : document.toCharArray()) {
+          validator.input(c);
+        }
+      } catch (InvalidJsonException e) {
+        expectedError = e.getMessage();
+      }
+
+      JsonReader reader = new JsonReader(new StringReader(document), 2);
+      String error = null;
+      try {
+        tokens(reader);
+      } catch (InvalidJsonException e) {
+        error = e.getMessage();
+      }
+      assertEquals(document, validator.status(), reader.status());
+      if (validator.status() == Status.INCOMPLETE) {
+        assertEquals(document, true, error.startsWith("Error: unexpected end of input"));
+      } else {
+        assertEquals(document, expectedError, error);
+      }
+    }
+  }
+
+  @Test
+  public void errorIsRepeated() throws Exception {
+    JsonReader reader = new JsonReader(new StringReader("{ x"));
+    reader.nextToken();
+    List<String> messages = new ArrayList<>();
+    for (int i = 0; i < 2; i++) {
+      try {
+        reader.nextToken();
+        fail();
+      } catch (InvalidJsonException e) {
+        messages.add(e.getMessage());
+      }
+    }
+    assertEquals(messages.get(0), messages.get(1));
+    assertEquals(true, messages.get(0).startsWith("Error: error in key initialization"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void noBuffer() {
+    new JsonReader(new StringReader(""), 0);
+  }
+
+  /**
+   * Reads all remaining tokens and writes them as short text.
+   */
+  private String tokens(JsonReader reader) throws IOException, InvalidJsonException {
+    StringBuilder text = new StringBuilder();
+    while (true) {
+      JsonToken token = reader.nextToken();
+      switch (token) {
+        case START_OBJECT:
+          text.append("{ ");
+          break;
+        case END_OBJECT:
+          text.append("} ");
+          break;
+        case START_ARRAY:
+          text.append("[ ");
+          break;
+        case END_ARRAY:
+          text.append("] ");
+          break;
+        case KEY:
+          text.append("key(").append(reader.currentKey()).append(") ");
+          break;
+        case STRING:
+          text.append("value(").append(reader.currentString()).append(") ");
+          break;
+        default:
+          return text.append("end").toString();
+      }
+    }
+  }
+}
@@ -0,0 +1,73 @@
+package parser;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Test Class for the class NestingStack.
+ * Tests pushing, peeking and popping objects and arrays, also across word boundaries
+ * and at depths that need the bit storage to grow.
+ */
+public class NestingStackTest {
+
+  @Test
+  public void emptyStack() {
+    NestingStack stack = new NestingStack();
+    assertEquals(true, stack.isEmpty());
+    assertEquals(0, stack.depth());
+    assertEquals(false, stack.isObjectOnTop());
+    assertEquals(false, stack.isArrayOnTop());
+  }
+
+  @Test
+  public void pushAndPop() {
+    NestingStack stack = new NestingStack();
+    stack.pushObject();
+    stack.pushArray();
+    assertEquals(2, stack.depth());
+    assertEquals(true, stack.isArrayOnTop());
+    assertEquals(false, stack.isObjectOnTop());
+    stack.pop();
+    assertEquals(true, stack.isObjectOnTop());
+    stack.pop();
+    assertEquals(true, stack.isEmpty());
+  }
+
+  @Test
+  public void reusedLevelIsOverwritten() {
+    NestingStack stack = new NestingStack();
+    stack.pushArray();
+    stack.pop();
+    stack.pushObject();
+    assertEquals(true, stack.isObjectOnTop());
+    stack.pop();
+    stack.pushArray();
+    assertEquals(true, stack.isArrayOnTop());
+  }
+
+  @Test
+  public void deepNestingKeepsEveryLevel() {
+    NestingStack stack = new NestingStack();
+    int depth = 1_000_003;
+    for (int i = 0; i < depth; i++) {
+      if (i % 3 == 0) {
+        stack.pushArray();
+      } else {
+        stack.pushObject();
+      }
+    }
+    assertEquals(depth, stack.depth());
+    for (int i = depth - 1; i >= 0; i--) {
+      assertEquals(i % 3 == 0, stack.isArrayOnTop());
+      assertEquals(i % 3 == 0, stack.isArrayAt(i));
+      stack.pop();
+    }
+    assertEquals(true, stack.isEmpty());
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void popEmptyStack() {
+    new NestingStack().pop();
+  }
+}
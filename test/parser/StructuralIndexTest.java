@@ -0,0 +1,138 @@
+package parser;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import jsontree.JsonTreeBuilder;
+import validator.JsonValidator;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Test Class for the class StructuralIndex.
+ * Compares the indexed positions with a byte-at-a-time reference and checks that parsers
+ * consuming the index reach the same result as parsers consuming every byte.
+ */
+public class StructuralIndexTest {
+
+  private static final String DOCUMENT = "{ \"key\" : [\"v1 with spaces\", {\"a\":\"b\"}],\n"
+          + "  \"other\" : { \"deep\" : [[\"x\"], []] },\n  \"last\" : \"{not [structural]: ,\"\n}\n";
+
+  @Test
+  public void prefixXorMarksStrings() {
+    assertEquals(0b0111_1100L, StructuralIndex.prefixXor(0b1000_0100L));
+    assertEquals(-1L << 3, StructuralIndex.prefixXor(1L << 3));
+  }
+
+  @Test
+  public void positionsOfSmallDocument() {
+    StructuralIndex index = StructuralIndex.build(bytes("{ \"ab\" : \"c d\" }"));
+    int[] expected = {0, 2, 5, 7, 9, 13, 15};
+    assertEquals(expected.length, index.size());
+    for (int i = 0; i < expected.length; i++) {
+      assertEquals(expected[i], index.position(i));
+    }
+    assertEquals(true, index.isAsciiOnly());
+  }
+
+  @Test
+  public void sameAsScalarReferenceAcrossBlocks() {
+    String alphabet = "{}[]\":, \n\tab\u000B";
+    Random random = new Random(3);
+    for (int round = 0; round < 500; round++) {
+      StringBuilder text = new StringBuilder();
+      int length = random.nextInt(300);
+      for (int i = 0; i < length; i++) {
+        text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+      }
+      byte[] raw = text.toString().getBytes(StandardCharsets.UTF_8);
+      int offset = random.nextInt(9);
+      ByteBuffer buffer = ByteBuffer.allocate(raw.length + offset);
+      buffer.position(offset);
+      buffer.put(raw);
+      buffer.position(offset);
+
+      StructuralIndex index = StructuralIndex.build(buffer);
+      List<Integer> expected = scalarPositions(raw, offset);
+      assertEquals(expected.size(), index.size());
+      for (int i = 0; i < expected.size(); i++) {
+        assertEquals((int) expected.get(i), index.position(i));
+      }
+    }
+  }
+
+  @Test
+  public void validatorConsumingIndex() {
+    String[] documents = {
+      DOCUMENT,
+      "{ \"key\" : \"v\" ] }",
+      "{ \"ke y\" : \"v\" }",
+      "{ \"key\" : \"v\" } trailing",
+      "{ \"key\" : \"unterminated",
+      "{ \"key\u000B\" : \"v\" }",
+      "\u000B{ \"key\" :\u000B\"v\" }",
+      "{ \"key\" : \"v\" } \"x\"",
+      ""
+    };
+    for (String document : documents) {
+      JsonValidator expected = new JsonValidator();
+      int expectedConsumed = expected.input(bytes(document));
+      JsonValidator actual = new JsonValidator();
+      int actualConsumed = actual.input(StructuralIndex.build(bytes(document)));
+      assertEquals(document, expected.output(), actual.output());
+      assertEquals(document, expectedConsumed, actualConsumed);
+    }
+  }
+
+  @Test
+  public void builderConsumingIndex() {
+    JsonTreeBuilder expected = new JsonTreeBuilder();
+    expected.input(bytes(DOCUMENT));
+    JsonTreeBuilder actual = new JsonTreeBuilder();
+    assertEquals(DOCUMENT.length(), actual.input(StructuralIndex.build(bytes(DOCUMENT))));
+    assertEquals(expected.output(), actual.output());
+    assertEquals(expected.output().prettyPrint(), actual.output().prettyPrint());
+  }
+
+  @Test
+  public void nonAsciiFallsBackToByteEngine() {
+    String document = "{ \"caf\u00e9\" : \"\u00fcber\" }";
+    StructuralIndex index = StructuralIndex.build(bytes(document));
+    assertEquals(false, index.isAsciiOnly());
+    JsonTreeBuilder builder = new JsonTreeBuilder();
+    builder.input(index);
+    JsonTreeBuilder expected = new JsonTreeBuilder();
+    expected.input(document);
+    assertEquals(expected.output(), builder.output());
+  }
+
+  /**
+   * Encodes a string as a UTF-8 buffer.
+   */
+  private ByteBuffer bytes(String text) {
+    return ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Reference implementation of the index: quotes and non-whitespace outside strings.
+   */
+  private List<Integer> scalarPositions(byte[] raw, int offset) {
+    List<Integer> positions = new ArrayList<>();
+    boolean inString = false;
+    for (int i = 0; i < raw.length; i++) {
+      byte b = raw[i];
+      if (b == '"') {
+        positions.add(i + offset);
+        inString = !inString;
+      } else if (!inString && b != ' ' && b != '\n' && b != '\r' && b != '\t') {
+        positions.add(i + offset);
+      }
+    }
+    return positions;
+  }
+}
@@ -0,0 +1,90 @@
+package parser;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Test Class for the class SwarScanner.
+ * Compares the word-at-a-time scans with a byte-at-a-time scan on heap and direct buffers,
+ * at every alignment and with the stop byte in every lane of a word.
+ */
+public class SwarScannerTest {
+
+  @Test
+  public void zeroBytesIsExact() {
+    assertEquals(0x8000000000000080L, SwarScanner.zeroBytes(0x0001020304050600L));
+    assertEquals(0L, SwarScanner.zeroBytes(0x0101010101010101L));
+    assertEquals(0x8080808080800080L, SwarScanner.zeroBytes(0x0000000000000100L));
+  }
+
+  @Test
+  public void stopByteInEveryLane() {
+    byte[] stops = {'"', (byte) 0xC3, (byte) 0x80};
+    for (byte stop : stops) {
+      for (int position = 0; position < 24; position++) {
+        byte[] bytes = new byte[24];
+        Arrays.fill(bytes, (byte) 'a');
+        bytes[position] = stop;
+        assertEquals(position, SwarScanner.skipStringBody(ByteBuffer.wrap(bytes), 0, 24));
+      }
+    }
+    for (int position = 0; position < 24; position++) {
+      byte[] bytes = new byte[24];
+      Arrays.fill(bytes, (byte) ' ');
+      bytes[position] = '{';
+      assertEquals(position, SwarScanner.skipWhitespace(ByteBuffer.wrap(bytes), 0, 24));
+    }
+  }
+
+  @Test
+  public void sameResultAsScalarScan() {
+    byte[] alphabet = {' ', '\n', '\r', '\t', 'a', '"', '{', 0x0B, (byte) 0xE2, 0x1F};
+    Random random = new Random(7);
+    for (int round = 0; round < 2000; round++) {
+      byte[] bytes = new byte[random.nextInt(40)];
+      for (int i = 0; i < bytes.length; i++) {
+        byte common = random.nextBoolean() ? (byte) ' ' : (byte) 'x';
+        bytes[i] = random.nextInt(8) == 0 ? alphabet[random.nextInt(alphabet.length)] : common;
+      }
+      ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+      direct.put(bytes).flip();
+      int from = bytes.length == 0 ? 0 : random.nextInt(bytes.length);
+      int to = from + random.nextInt(bytes.length - from + 1);
+      for (ByteBuffer buffer : new ByteBuffer[] {ByteBuffer.wrap(bytes), direct}) {
+        assertEquals(scalarStringBody(bytes, from, to),
+                SwarScanner.skipStringBody(buffer, from, to));
+        assertEquals(scalarWhitespace(bytes, from, to),
+                SwarScanner.skipWhitespace(buffer, from, to));
+      }
+    }
+  }
+
+  /**
+   * Reference implementation of skipStringBody.
+   */
+  private int scalarStringBody(byte[] bytes, int from, int to) {
+    for (int i = from; i < to; i++) {
+      if (bytes[i] < 0 || bytes[i] == '"') {
+        return i;
+      }
+    }
+    return to;
+  }
+
+  /**
+   * Reference implementation of skipWhitespace.
+   */
+  private int scalarWhitespace(byte[] bytes, int from, int to) {
+    for (int i = from; i < to; i++) {
+      if (" \n\r\t".indexOf(bytes[i]) < 0) {
+        return i;
+      }
+    }
+    return to;
+  }
+}
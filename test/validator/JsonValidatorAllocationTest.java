@@ -0,0 +1,131 @@
+package validator;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import parser.AbstractJsonParser;
+import parser.InvalidJsonException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Allocation regression tests for the validators.
+ * Uses the per-thread allocated bytes counter of the JVM to check that once the code is warmed up
+ * validating a character allocates nothing, whichever input method and engine is used.
+ */
+public class JsonValidatorAllocationTest {
+
+  private static final int WARMUP_ROUNDS = 20;
+  private static final int REPEATED_ELEMENTS = 20_000;
+  private static final long TOLERATED_BYTES = 1024;
+
+  private com.sun.management.ThreadMXBean threadBean;
+  private char[] document;
+  private byte[] documentBytes;
+
+  @Before
+  public void setup() {
+    Assume.assumeTrue(ManagementFactory.getThreadMXBean()
+            instanceof com.sun.management.ThreadMXBean);
+    threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    Assume.assumeTrue(threadBean.isThreadAllocatedMemorySupported());
+    threadBean.setThreadAllocatedMemoryEnabled(true);
+
+    StringBuilder json = new StringBuilder("{ \"records\" : [");
+    for (int i = 0; i < REPEATED_ELEMENTS; i++) {
+      json.append("\n  { \"name\" : \"value number ").append(i)
+          .append("\", \"tags\" : [\"a\", \"b\"] },");
+    }
+    json.append("\n  \"last\"\n] }");
+    document = json.toString().toCharArray();
+    documentBytes = json.toString().getBytes(StandardCharsets.UTF_8);
+  }
+
+  @Test
+  public void characterInputDoesNotAllocate() throws InvalidJsonException {
+    for (ValidatorEngine engine : ValidatorEngine.values()) {
+      for (int round = 0; round < WARMUP_ROUNDS; round++) {
+        feedCharacters(engine.create());
+      }
+      AbstractJsonParser<String> validator = engine.create();
+      long allocated = allocatedBytes();
+      feedCharacters(validator);
+      allocated = allocatedBytes() - allocated;
+
+      assertEquals(Status.VALID, validator.status());
+      assertTrue(engine + " allocated " + allocated + " bytes", allocated < TOLERATED_BYTES);
+    }
+  }
+
+  @Test
+  public void bulkInputDoesNotAllocate() {
+    for (ValidatorEngine engine : ValidatorEngine.values()) {
+      for (int round = 0; round < WARMUP_ROUNDS; round++) {
+        engine.create().input(document, 0, document.length);
+      }
+      AbstractJsonParser<String> validator = engine.create();
+      long allocated = allocatedBytes();
+      validator.input(document, 0, document.length);
+      allocated = allocatedBytes() - allocated;
+
+      assertEquals(Status.VALID, validator.status());
+      assertTrue(engine + " allocated " + allocated + " bytes", allocated < TOLERATED_BYTES);
+    }
+  }
+
+  @Test
+  public void byteInputDoesNotAllocatePerCharacter() {
+    for (int round = 0; round < WARMUP_ROUNDS; round++) {
+      new JsonValidator().input(documentBytes, 0, documentBytes.length);
+    }
+    JsonValidator validator = new JsonValidator();
+    long allocated = allocatedBytes();
+    validator.input(documentBytes, 0, documentBytes.length);
+    allocated = allocatedBytes() - allocated;
+
+    assertEquals(Status.VALID, validator.status());
+    assertTrue("allocated " + allocated + " bytes", allocated < TOLERATED_BYTES);
+  }
+
+  @Test
+  public void outputDoesNotAllocate() {
+    JsonValidator validator = new JsonValidator();
+    validator.input(document, 0, document.length);
+    for (int round = 0; round < WARMUP_ROUNDS * 1000; round++) {
+      validator.output();
+    }
+    long allocated = allocatedBytes();
+    for (int round = 0; round < 100_000; round++) {
+      validator.output();
+    }
+    allocated = allocatedBytes() - allocated;
+    assertEquals("Status:Valid", validator.output());
+    assertTrue("allocated " + allocated + " bytes", allocated < TOLERATED_BYTES);
+  }
+
+  /**
+   * Feeds the whole document one character at a time.
+   *
+   * @param validator the validator to feed
+   * @throws InvalidJsonException if the document is invalid
+   */
+  private void feedCharacters(AbstractJsonParser<String> validator) throws InvalidJsonException {
+    for (char c : document) {
+      validator.input(c);
+    }
+  }
+
+  /**
+   * Reads the number of bytes allocated by the current thread so far.
+   *
+   * @return the allocated bytes
+   */
+  private long allocatedBytes() {
+    return threadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+  }
+}
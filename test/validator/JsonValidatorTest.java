@@ -1,6 +1,15 @@
 package validator;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import parser.InvalidJsonException;
 import parser.JsonParser;
@@ -15,6 +24,9 @@ import static org.junit.Assert.assertEquals;
  */
 public class JsonValidatorTest {
 
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
   @Test
   public void invalidKey() throws InvalidJsonException {
     JsonParser validator = new JsonValidator();
@@ -1544,4 +1556,237 @@ public class JsonValidatorTest {
       assertEquals("Status:Invalid", validator.output());
     }
   }
-}
\ No newline at end of file
+
+  @Test
+  public void bulkInputCharArray() {
+    JsonParser validator = new JsonValidator();
+    char[] chars = "xx{ \"key\" : [\"v1\", {\"a\":\"b\"}]}xx".toCharArray();
+    int consumed = validator.input(chars, 2, chars.length - 4);
+    assertEquals(chars.length - 4, consumed);
+    assertEquals("Status:Valid", validator.output());
+  }
+
+  @Test
+  public void bulkInputCharSequenceInPieces() {
+    JsonParser validator = new JsonValidator();
+    assertEquals(7, validator.input("{ \"key\""));
+    assertEquals("Status:Incomplete", validator.output());
+    assertEquals(11, validator.input(" : \"value\"}"));
+    assertEquals("Status:Valid", validator.output());
+  }
+
+  @Test
+  public void bulkInputStopsAtInvalidCharacter() {
+    JsonParser validator = new JsonValidator();
+    String str = "{ \"ke y\" : \"value\"}";
+    assertEquals(5, validator.input(str));
+    assertEquals("Status:Invalid", validator.output());
+    assertEquals(0, validator.input("}"));
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void bulkInputOutOfRange() {
+    JsonParser validator = new JsonValidator();
+    validator.input(new char[4], 2, 3);
+  }
+
+  @Test
+  public void utf8BytesValid() {
+    JsonValidator validator = new JsonValidator();
+    byte[] bytes = "{ \"caf\u00e9\" : [\"\u00fcber \u20ac \ud83d\ude00\", {\"a\":\"b\"}]}"
+            .getBytes(StandardCharsets.UTF_8);
+    assertEquals(bytes.length, validator.input(bytes, 0, bytes.length));
+    assertEquals("Status:Valid", validator.output());
+  }
+
+  @Test
+  public void utf8SequenceSplitAcrossCalls() {
+    JsonValidator validator = new JsonValidator();
+    byte[] bytes = "{\"k\":\"\u20ac\"}".getBytes(StandardCharsets.UTF_8);
+    ByteBuffer first = ByteBuffer.wrap(bytes, 0, 7);
+    assertEquals(7, validator.input(first));
+    assertEquals(7, first.position());
+    assertEquals(bytes.length - 7, validator.input(bytes, 7, bytes.length - 7));
+    assertEquals("Status:Valid", validator.output());
+  }
+
+  @Test
+  public void utf8MalformedByteInValue() {
+    JsonValidator validator = new JsonValidator();
+    byte[] bytes = {'{', '"', 'k', '"', ':', '"', 'a', (byte) 0xC0, (byte) 0x80, '"', '}'};
+    assertEquals(7, validator.input(bytes, 0, bytes.length));
+    assertEquals("Status:Invalid", validator.output());
+  }
+
+  @Test
+  public void utf8SurrogateInKeyIsInvalid() {
+    JsonValidator validator = new JsonValidator();
+    byte[] bytes = "{\"k\ud83d\ude00\":\"v\"}".getBytes(StandardCharsets.UTF_8);
+    assertEquals(6, validator.input(bytes, 0, bytes.length));
+    assertEquals("Status:Invalid", validator.output());
+  }
+
+  @Test
+  public void utf8UnicodeWhitespaceIsSkipped() {
+    JsonValidator validator = new JsonValidator();
+    byte[] bytes = "\u2003{\"k\":\u2003\"v\"}".getBytes(StandardCharsets.UTF_8);
+    assertEquals(bytes.length, validator.input(bytes, 0, bytes.length));
+    assertEquals("Status:Valid", validator.output());
+  }
+
+  @Test
+  public void utf8SequenceAfterEndIsPending() {
+    JsonValidator validator = new JsonValidator();
+    byte[] bytes = {'{', '"', 'k', '"', ':', '"', 'v', '"', '}', (byte) 0xE2, (byte) 0x80};
+    assertEquals(bytes.length, validator.input(bytes, 0, bytes.length));
+    assertEquals("Status:Incomplete", validator.output());
+    assertEquals(1, validator.input(new byte[] {(byte) 0x83}, 0, 1));
+    assertEquals("Status:Valid", validator.output());
+  }
+
+  @Test
+  public void utf8SequenceTruncatedAtEndOfFile() throws IOException {
+    byte[] json = "{\"k\":\"v\"}".getBytes(StandardCharsets.UTF_8);
+    byte[] bytes = Arrays.copyOf(json, json.length + 2);
+    bytes[json.length] = (byte) 0xE2;
+    bytes[json.length + 1] = (byte) 0x80;
+    Path file = folder.newFile("truncated.json").toPath();
+    Files.write(file, bytes);
+    assertEquals("Status:Invalid", JsonValidator.validate(file));
+
+    TableJsonValidator table = new TableJsonValidator();
+    table.input(file);
+    assertEquals("Status:Invalid", table.output());
+  }
+
+  @Test
+  public void validateMappedFile() throws IOException {
+    Path valid = folder.newFile("valid.json").toPath();
+    Files.write(valid, "{\n  \"k\u00e9y\" : [\"v1\", {\"a\":\"b\"}]\n}\n"
+            .getBytes(StandardCharsets.UTF_8));
+    assertEquals("Status:Valid", JsonValidator.validate(valid));
+
+    Path incomplete = folder.newFile("incomplete.json").toPath();
+    Files.write(incomplete, "{ \"key\" : ".getBytes(StandardCharsets.UTF_8));
+    assertEquals("Status:Incomplete", JsonValidator.validate(incomplete));
+
+    Path invalid = folder.newFile("invalid.json").toPath();
+    Files.write(invalid, "{ \"key\" : \"v\" ] }".getBytes(StandardCharsets.UTF_8));
+    assertEquals("Status:Invalid", JsonValidator.validate(invalid));
+
+    Path empty = folder.newFile("empty.json").toPath();
+    assertEquals("Status:Empty", JsonValidator.validate(empty));
+  }
+
+  @Test
+  public void millionLevelsOfNesting() {
+    int depth = 1_000_000;
+    StringBuilder json = new StringBuilder("{\"a\":");
+    for (int i = 0; i < depth; i++) {
+      json.append(i % 2 == 0 ? "[" : "{\"a\":");
+    }
+    json.append("\"v\"");
+    for (int i = depth - 1; i >= 0; i--) {
+      json.append(i % 2 == 0 ? "]" : "}");
+    }
+    json.append("}");
+
+    JsonParser validator = new JsonValidator();
+    assertEquals(json.length(), validator.input(json));
+    assertEquals("Status:Valid", validator.output());
+
+    JsonParser mismatched = new JsonValidator();
+    json.setCharAt(json.length() - 2, '}');
+    assertEquals(json.length() - 2, mismatched.input(json));
+    assertEquals("Status:Invalid", mismatched.output());
+  }
+
+  @Test
+  public void typedStatus() throws InvalidJsonException {
+    JsonValidator validator = new JsonValidator();
+    assertEquals(Status.EMPTY, validator.status());
+    validator.input('{');
+    assertEquals(Status.INCOMPLETE, validator.status());
+    validator.input("\"k\":\"v\"}");
+    assertEquals(Status.VALID, validator.status());
+    assertEquals("Status:Valid", validator.output());
+    validator.input(",");
+    assertEquals(Status.INVALID, validator.status());
+    assertEquals("Status:Invalid", validator.output());
+  }
+
+  @Test
+  public void checkpointAtEveryOffset() {
+    String json = "{ \"key\" : [\"v\u00e9\", {\"a1\":\"b\"}], \"k\" : { \"x\" : \"\ud83d\ude00\" } }";
+    byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+    for (int split = 0; split <= bytes.length; split++) {
+      JsonValidator first = new JsonValidator();
+      first.input(bytes, 0, split);
+      byte[] checkpoint = first.checkpoint(split);
+
+      JsonValidator second = new JsonValidator();
+      int offset = (int) second.restore(checkpoint);
+      assertEquals(split, offset);
+      assertEquals(first.status(), second.status());
+      assertEquals(bytes.length - offset, second.input(bytes, offset, bytes.length - offset));
+      assertEquals("split at " + split, "Status:Valid", second.output());
+    }
+  }
+
+  @Test
+  public void checkpointOfInvalidInput() {
+    JsonValidator first = new JsonValidator();
+    first.input("{ \"1\"");
+    JsonValidator second = new JsonValidator();
+    second.restore(first.checkpoint(6));
+    assertEquals("Status:Invalid", second.output());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void restoreCheckpointOfOtherParser() {
+    new JsonValidator().restore(new TableJsonValidator().checkpoint(0));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void restoreTruncatedCheckpoint() {
+    byte[] checkpoint = new JsonValidator().checkpoint(0);
+    new JsonValidator().restore(Arrays.copyOf(checkpoint, checkpoint.length - 1));
+  }
+
+  @Test
+  public void failedRestoreLeavesParserUnchanged() {
+    JsonValidator other = new JsonValidator();
+    other.input("{ \"a\" : [\"b\", {");
+    byte[] checkpoint = other.checkpoint(16);
+
+    JsonValidator validator = new JsonValidator();
+    validator.input("{ \"key\" : [\"v");
+    try {
+      validator.restore(Arrays.copyOf(checkpoint, checkpoint.length - 1));
+    } catch (IllegalArgumentException e) {
+      validator.input("1\"]}");
+    }
+    assertEquals("Status:Valid", validator.output());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void restoreCheckpointWithCorruptDepth() {
+    byte[] checkpoint = new JsonValidator().checkpoint(0);
+    // magic, class name, offset, four state bytes and two UTF-8 ints come before the depth
+    int depthAt = 4 + 2 + JsonValidator.class.getName().length() + 8 + 4 + 8;
+    checkpoint[depthAt] = 0x7F;
+    new JsonValidator().restore(checkpoint);
+  }
+
+  @Test
+  public void resumeFileFromCheckpoint() throws IOException {
+    Path file = folder.newFile("resume.json").toPath();
+    Files.write(file, "{ \"key\" : [\"v1\", {\"a\":\"b\"}]}".getBytes(StandardCharsets.UTF_8));
+    JsonValidator first = new JsonValidator();
+    first.input("{ \"key\" : [\"v");
+    JsonValidator second = new JsonValidator();
+    long offset = second.restore(first.checkpoint(13));
+    assertEquals(Files.size(file), second.input(file, offset));
+    assertEquals("Status:Valid", second.output());
+  }
+}
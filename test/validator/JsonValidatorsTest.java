@@ -0,0 +1,108 @@
+package validator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Test;
+
+import parser.AbstractJsonParser;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Junit test class for JsonValidators class.
+ * Tests batch validation on the common pool and on custom executors with both engines,
+ * and checks that reusing a validator for many documents gives the same status as a new one.
+ */
+public class JsonValidatorsTest {
+
+  private static final String[] DOCUMENTS = {
+    "{ \"key\" : \"value\"}",
+    "{ \"key\" : [\"v1\", {\"a\":\"b\"}]}",
+    "{ \"key\" : ",
+    "{ \"1\" : \"h\"}",
+    "",
+    "{ \"key\" : \"v\" ] }",
+    "{ \"key\" : \"v\" } x"
+  };
+
+  @Test
+  public void validateAllOnCommonPool() {
+    List<String> documents = repeat(1000);
+    assertArrayEquals(expected(documents), JsonValidators.validateAll(documents));
+  }
+
+  @Test
+  public void validateAllOnCustomExecutor() {
+    List<String> documents = new LinkedList<>(repeat(500));
+    ExecutorService executor = Executors.newFixedThreadPool(3);
+    try {
+      for (ValidatorEngine engine : ValidatorEngine.values()) {
+        assertArrayEquals(expected(documents),
+                JsonValidators.validateAll(documents, executor, 3, engine));
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void validateAllOnCallingThread() {
+    List<String> documents = repeat(10);
+    assertArrayEquals(expected(documents),
+            JsonValidators.validateAll(documents, Runnable::run, 1, ValidatorEngine.STATE_MACHINE));
+  }
+
+  @Test
+  public void validateNothing() {
+    assertEquals(0, JsonValidators.validateAll(Collections.<String>emptyList()).length);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void noWorkers() {
+    JsonValidators.validateAll(repeat(1), Runnable::run, 0, ValidatorEngine.STATE_MACHINE);
+  }
+
+  @Test
+  public void resetAfterEveryStatus() {
+    for (ValidatorEngine engine : ValidatorEngine.values()) {
+      AbstractJsonParser<String> validator = engine.create();
+      for (String document : DOCUMENTS) {
+        validator.reset();
+        assertEquals(Status.EMPTY, validator.status());
+        validator.input(document);
+        assertEquals(document, expected(Arrays.asList(document))[0], validator.status());
+      }
+    }
+  }
+
+  /**
+   * Builds a list that cycles through the sample documents.
+   */
+  private List<String> repeat(int count) {
+    List<String> documents = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      documents.add(DOCUMENTS[i % DOCUMENTS.length]);
+    }
+    return documents;
+  }
+
+  /**
+   * Validates every document with a new validator.
+   */
+  private Status[] expected(List<String> documents) {
+    Status[] statuses = new Status[documents.size()];
+    for (int i = 0; i < statuses.length; i++) {
+      JsonValidator validator = new JsonValidator();
+      validator.input(documents.get(i));
+      statuses[i] = validator.status();
+    }
+    return statuses;
+  }
+}
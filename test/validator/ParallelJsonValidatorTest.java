@@ -0,0 +1,140 @@
+package validator;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Junit test class for ParallelJsonValidator class.
+ * Compares the parallel result with the sequential JsonValidator on generated documents,
+ * their truncations and random corruptions, using small chunks so that chunk boundaries
+ * fall inside keys, values and between every kind of token.
+ */
+public class ParallelJsonValidatorTest {
+
+  private static ForkJoinPool pool;
+
+  @BeforeClass
+  public static void startPool() {
+    pool = new ForkJoinPool(4);
+  }
+
+  @AfterClass
+  public static void stopPool() {
+    pool.shutdown();
+  }
+
+  @Test
+  public void fixedDocuments() {
+    String[] documents = {
+      "",
+      "        ",
+      "{ \"mission\" : \"impossible\"}",
+      "{ \"key\" : [\"v1\", {\"a\":\"b\"}, [], [[\"x\"]]]}   ",
+      "{ \"key\" : [\"v1\", {\"a\":\"b\"}, [], [[\"x\"]]]} x ",
+      "{ \"key\" : \"v\" ] }",
+      "{ \"key\" : [\"v\" } ]",
+      "{ \"key\" : \"v\" }{ \"key\" : \"v\" }",
+      "{ \"k e y\" : \"v\" }",
+      "{ \"key\" : \"v with } and ] and \\\" inside\" }",
+      "{ \"key\" : \"unterminated value"
+    };
+    for (String document : documents) {
+      for (int chunkSize = 1; chunkSize <= 8; chunkSize++) {
+        assertSameStatus(document, chunkSize);
+      }
+    }
+  }
+
+  @Test
+  public void generatedDocuments() {
+    Random random = new Random(11);
+    for (int round = 0; round < 200; round++) {
+      StringBuilder document = new StringBuilder();
+      generateObject(random, document, 0);
+      String valid = document.toString();
+      int chunkSize = 1 + random.nextInt(16);
+      assertSameStatus(valid, chunkSize);
+      assertSameStatus(valid.substring(0, random.nextInt(valid.length())), chunkSize);
+
+      StringBuilder corrupted = new StringBuilder(valid);
+      int position = random.nextInt(corrupted.length());
+      corrupted.setCharAt(position, "{}[]\":, a1"
+              .charAt(random.nextInt(10)));
+      assertSameStatus(corrupted.toString(), chunkSize);
+    }
+  }
+
+  @Test
+  public void largeDocumentWithDefaultChunks() {
+    StringBuilder document = new StringBuilder("{ \"items\" : [");
+    for (int i = 0; i < 200_000; i++) {
+      document.append(i == 0 ? "" : ",").append("\n  { \"name\" : \"item ").append(i)
+          .append("\", \"tags\" : [\"a\", \"b\"] }");
+    }
+    document.append("\n] }");
+    assertEquals(Status.VALID, new ParallelJsonValidator().validate(document));
+    document.setCharAt(document.length() / 2, '}');
+    assertEquals(sequential(document), new ParallelJsonValidator().validate(document));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void invalidChunkSize() {
+    new ParallelJsonValidator(pool, 0);
+  }
+
+  /**
+   * Checks that the parallel status equals the sequential status.
+   */
+  private void assertSameStatus(String document, int chunkSize) {
+    ParallelJsonValidator validator = new ParallelJsonValidator(pool, chunkSize);
+    assertEquals(document + " / " + chunkSize, sequential(document), validator.validate(document));
+  }
+
+  /**
+   * Validates the document sequentially.
+   */
+  private Status sequential(CharSequence document) {
+    JsonValidator validator = new JsonValidator();
+    validator.input(document);
+    return validator.status();
+  }
+
+  /**
+   * Appends a random object with string, array and object values.
+   */
+  private void generateObject(Random random, StringBuilder out, int depth) {
+    out.append("{");
+    int fields = 1 + random.nextInt(4);
+    for (int i = 0; i < fields; i++) {
+      out.append(i == 0 ? " " : ", ").append("\"key").append(i).append("\" : ");
+      generateValue(random, out, depth);
+    }
+    out.append(" }");
+  }
+
+  /**
+   * Appends a random string, array or object.
+   */
+  private void generateValue(Random random, StringBuilder out, int depth) {
+    int kind = depth > 3 ? 0 : random.nextInt(3);
+    if (kind == 0) {
+      out.append("\"value {with} [brackets], : ").append(random.nextInt(100)).append("\"");
+    } else if (kind == 1) {
+      out.append("[");
+      int elements = random.nextInt(4);
+      for (int i = 0; i < elements; i++) {
+        out.append(i == 0 ? "" : ",\n ");
+        generateValue(random, out, depth + 1);
+      }
+      out.append("]");
+    } else {
+      generateObject(random, out, depth + 1);
+    }
+  }
+}
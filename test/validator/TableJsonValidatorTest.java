@@ -0,0 +1,135 @@
+package validator;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import parser.AbstractJsonParser;
+import parser.InvalidJsonException;
+import parser.JsonParser;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Junit test class for TableJsonValidator class.
+ * Compares the table-driven validator with JsonValidator on fixed and random inputs.
+ * Status, error messages and consumed character counts must be identical.
+ */
+public class TableJsonValidatorTest {
+
+  private static final String[] INPUTS = {
+    "",
+    "   ",
+    "{ \"mission\" : \"impossible\"}",
+    "{ \"aforApple\" : {  \"bForBall\" : \"cForCat\"}  }",
+    "{ \"key\" : [\"v1\", {\"a\":\"b\"}, [], [[\"x\"]]]}",
+    "{ \"key\" : [\"v1\",]}",
+    "{ \"caf\u00e9\" : \"\u00fcber\"}",
+    "{ \"1\" : \"h\"}",
+    "{ \"ab c\" : \"v\"}",
+    "{ \"k\" \"v\"}",
+    "{ \"k\" : }",
+    "{ \"k\" : \"v\" ]",
+    "{ \"k\" : [\"v\" }",
+    "{ \"k\" : \"v\"} x",
+    "{ \"k\" : \"v\"}  ",
+    "[\"v\"]",
+    "{ \"k\" : \"v\", }",
+    "{ \"k\" : \"v\" \"k2\" : \"v\"}",
+    "{ \"k\" : ]",
+    "{ \"\" : \"v\"}"
+  };
+
+  @Test
+  public void sameResultAsJsonValidatorForFixedInputs() {
+    for (String input : INPUTS) {
+      assertSameResult(input);
+    }
+  }
+
+  @Test
+  public void sameResultAsJsonValidatorForRandomInputs() {
+    String alphabet = "{}[]\":, ab1\u00e9\t";
+    Random random = new Random(42);
+    for (int i = 0; i < 5000; i++) {
+      StringBuilder input = new StringBuilder("{\"");
+      int length = random.nextInt(30);
+      for (int j = 0; j < length; j++) {
+        input.append(alphabet.charAt(random.nextInt(alphabet.length())));
+      }
+      assertSameResult(input.toString());
+    }
+  }
+
+  @Test
+  public void bulkInputMatchesCharacterInput() {
+    for (String input : INPUTS) {
+      AbstractJsonParser<String> expected = new JsonValidator();
+      AbstractJsonParser<String> actual = new TableJsonValidator();
+      char[] chars = input.toCharArray();
+      assertEquals(input, expected.input(chars, 0, chars.length), actual.input(chars, 0, chars.length));
+      assertEquals(input, expected.output(), actual.output());
+      assertEquals(input, expected.input(input), actual.input(input));
+      assertEquals(input, expected.output(), actual.output());
+    }
+  }
+
+  @Test
+  public void engineSelection() {
+    assertEquals(JsonValidator.class, ValidatorEngine.STATE_MACHINE.create().getClass());
+    assertEquals(TableJsonValidator.class, ValidatorEngine.TRANSITION_TABLE.create().getClass());
+    assertEquals("Status:Empty", ValidatorEngine.TRANSITION_TABLE.create().output());
+  }
+
+  /**
+   * Feeds the input one character at a time to both validators and compares the outcome.
+   *
+   * @param input the input to validate
+   */
+  private void assertSameResult(String input) {
+    JsonParser<String> expected = new JsonValidator();
+    JsonParser<String> actual = new TableJsonValidator();
+    assertEquals(input, feed(expected, input), feed(actual, input));
+    assertEquals(input, expected.output(), actual.output());
+  }
+
+  /**
+   * Feeds the input one character at a time.
+   *
+   * @param parser the parser to feed
+   * @param input  the input characters
+   * @return the first error message, or null if there was none
+   */
+  private String feed(JsonParser<String> parser, String input) {
+    String error = null;
+    for (int i = 0; i < input.length(); i++) {
+      try {
+        parser.input(input.charAt(i));
+      } catch (InvalidJsonException e) {
+        if (error == null) {
+          error = i + " " + e.getMessage();
+        }
+      }
+    }
+    return error;
+  }
+
+  @Test
+  public void checkpointAtEveryOffset() {
+    String json = "{ \"key\" : [\"v1\", {\"a1\":\"b\"}], \"k\" : { \"x\" : \"y\" } }";
+    for (int split = 0; split <= json.length(); split++) {
+      TableJsonValidator first = new TableJsonValidator();
+      first.input(json.substring(0, split));
+      TableJsonValidator second = new TableJsonValidator();
+      int offset = (int) second.restore(first.checkpoint(split));
+      second.input(json.substring(offset));
+      assertEquals("split at " + split, "Status:Valid", second.output());
+    }
+    TableJsonValidator first = new TableJsonValidator();
+    first.input("{ \"ke");
+    TableJsonValidator second = new TableJsonValidator();
+    second.restore(first.checkpoint(5));
+    second.input("1\" : \"v\" }");
+    assertEquals("Status:Valid", second.output());
+  }
+}
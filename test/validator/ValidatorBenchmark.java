@@ -0,0 +1,147 @@
+package validator;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import parser.AbstractJsonParser;
+import parser.InvalidJsonException;
+import parser.StructuralIndex;
+
+/**
+ * Throughput benchmark for the validator engines, run with its main method.
+ * Validates the same generated document repeatedly with each engine and prints
+ * the best observed millions of characters per second for char input, and megabytes per
+ * second for UTF-8 input.
+ */
+public class ValidatorBenchmark {
+
+  private static final int WARMUP_ROUNDS = 5;
+  private static final int MEASURED_ROUNDS = 10;
+  private static final String CHARS = "M chars/sec";
+  private static final String BYTES = "MB/s";
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args optional document size in characters
+   * @throws InvalidJsonException if the generated document is invalid
+   */
+  public static void main(String[] args) throws InvalidJsonException {
+    int size = args.length > 0 ? Integer.parseInt(args[0]) : 16 * 1024 * 1024;
+    char[] document = generateDocument(size);
+    System.out.printf("document size: %d chars%n", document.length);
+
+    ByteBuffer bytes = ByteBuffer.wrap(new String(document).getBytes(StandardCharsets.UTF_8));
+    System.out.printf("document size: %d bytes%n", bytes.remaining());
+
+    for (ValidatorEngine engine : ValidatorEngine.values()) {
+      report(engine + " input(char)", measure(engine, document, false), CHARS);
+      report(engine + " input(char[])", measure(engine, document, true), CHARS);
+      report(engine + " input(ByteBuffer)", measureBytes(engine, bytes, false), BYTES);
+      report(engine + " input(StructuralIndex)", measureBytes(engine, bytes, true), BYTES);
+    }
+  }
+
+  /**
+   * Measures the best throughput of an engine on UTF-8 input over several rounds.
+   * With an index, building the index is part of the measured time.
+   *
+   * @param engine  the engine to measure
+   * @param bytes   the document to validate
+   * @param indexed whether to consume a structural index instead of every byte
+   * @return the best throughput in bytes per second
+   */
+  private static double measureBytes(ValidatorEngine engine, ByteBuffer bytes, boolean indexed) {
+    double best = 0;
+    for (int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++) {
+      AbstractJsonParser<String> validator = engine.create();
+      ByteBuffer input = bytes.duplicate();
+      long start = System.nanoTime();
+      if (indexed) {
+        validator.input(StructuralIndex.build(input));
+      } else {
+        validator.input(input);
+      }
+      long elapsed = System.nanoTime() - start;
+      if (!"Status:Valid".equals(validator.output())) {
+        throw new IllegalStateException(engine + " rejected the document");
+      }
+      if (round >= WARMUP_ROUNDS) {
+        best = Math.max(best, bytes.remaining() * 1e9 / elapsed);
+      }
+    }
+    return best;
+  }
+
+  /**
+   * Measures the best throughput of an engine over several rounds.
+   *
+   * @param engine   the engine to measure
+   * @param document the document to validate
+   * @param bulk     whether to use the bulk input method
+   * @return the best throughput in characters per second
+   * @throws InvalidJsonException if the document is invalid
+   */
+  private static double measure(ValidatorEngine engine, char[] document, boolean bulk)
+          throws InvalidJsonException {
+    double best = 0;
+    for (int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++) {
+      AbstractJsonParser<String> validator = engine.create();
+      long start = System.nanoTime();
+      if (bulk) {
+        validator.input(document, 0, document.length);
+      } else {
+        for (char c : document) {
+          validator.input(c);
+        }
+      }
+      long elapsed = System.nanoTime() - start;
+      if (!"Status:Valid".equals(validator.output())) {
+        throw new IllegalStateException(engine + " rejected the document");
+      }
+      if (round >= WARMUP_ROUNDS) {
+        best = Math.max(best, document.length * 1e9 / elapsed);
+      }
+    }
+    return best;
+  }
+
+  /**
+   * Prints a single result line.
+   *
+   * @param name      the measured configuration
+   * @param perSecond the measured throughput in characters or bytes per second
+   * @param unit      the unit of a million characters or bytes per second
+   */
+  private static void report(String name, double perSecond, String unit) {
+    System.out.printf("%-40s %10.1f %s%n", name, perSecond / 1e6, unit);
+  }
+
+  /**
+   * Generates an indented document of nested objects, arrays and string values.
+   *
+   * @param size the approximate size in characters
+   * @return the document
+   */
+  static char[] generateDocument(int size) {
+    StringBuilder json = new StringBuilder(size + 256);
+    json.append("{\n  \"records\" : [\n");
+    int record = 0;
+    while (json.length() < size) {
+      if (record > 0) {
+        json.append(",\n");
+      }
+      json.append("    {\n")
+          .append("      \"id\" : \"").append(record).append("\",\n")
+          .append("      \"name\" : \"record number ").append(record).append("\",\n")
+          .append("      \"tags\" : [\"alpha\", \"beta\", \"gamma\"],\n")
+          .append("      \"address\" : { \"city\" : \"Boston\", \"zip\" : \"02115\" }\n")
+          .append("    }");
+      record++;
+    }
+    json.append("\n  ]\n}\n");
+    char[] document = new char[json.length()];
+    json.getChars(0, json.length(), document, 0);
+    return document;
+  }
+}